@@ -0,0 +1,198 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Concurrent submission load against a running backend, for comparing thread modes.
+ *
+ * <pre>
+ * java loadtest/SubmissionLoadTest.java [--url http://localhost:8080] [--clients 200]
+ *     [--seconds 60] [--watchers 50] [--poll-ms 250] [--language PYTHON]
+ * </pre>
+ *
+ * Every client signs up its own user, then submits a solution to problem 1 of contest 1 and polls
+ * it until it is judged, over and over until time is up. Each solution carries a unique comment so
+ * neither the verdict cache nor the artifact cache can answer it. Watchers hold STOMP connections
+ * subscribed to the contest's submission feed and count what the outbound channel delivers. Run
+ * the backend with judge.rate-limit.enabled=false, or most submissions come back 429.
+ */
+public class SubmissionLoadTest {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern STATUS = Pattern.compile("\"status\":\"(\\w+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of("url", "http://localhost:8080", "clients", "200",
+                "seconds", "60", "watchers", "50", "poll-ms", "250", "language", "PYTHON"));
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        String url = options.get("url");
+        int clients = Integer.parseInt(options.get("clients"));
+        long seconds = Long.parseLong(options.get("seconds"));
+        int watchers = Integer.parseInt(options.get("watchers"));
+        long pollMillis = Long.parseLong(options.get("poll-ms"));
+        String language = options.get("language");
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        AtomicLong frames = new AtomicLong();
+        List<WebSocket> sockets = new ArrayList<>();
+        for (int i = 0; i < watchers; i++) {
+            sockets.add(watch(http, url, frames));
+        }
+
+        Stats stats = new Stats();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    long userId = signUp(http, url, run + "-" + client);
+                    while (System.nanoTime() < deadline) {
+                        submitAndWait(http, url, userId, language, run + "-" + client, pollMillis, deadline, stats);
+                    }
+                } catch (Exception e) {
+                    stats.errors.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await(seconds + 120, TimeUnit.SECONDS);
+        sockets.forEach(socket -> socket.sendClose(WebSocket.NORMAL_CLOSURE, "done"));
+
+        System.out.printf("clients=%d seconds=%d watchers=%d language=%s%n", clients, seconds, watchers, language);
+        System.out.printf("accepted=%d judged=%d throttled=%d errors=%d judged/s=%.2f%n",
+                stats.accepted.get(), stats.judged.get(), stats.throttled.get(), stats.errors.get(),
+                stats.judged.get() / (double) seconds);
+        System.out.printf("submit latency ms p50=%d p99=%d max=%d%n",
+                stats.percentile(stats.submitMillis, 50), stats.percentile(stats.submitMillis, 99),
+                stats.percentile(stats.submitMillis, 100));
+        System.out.printf("poll latency ms p50=%d p99=%d max=%d%n",
+                stats.percentile(stats.pollMillis, 50), stats.percentile(stats.pollMillis, 99),
+                stats.percentile(stats.pollMillis, 100));
+        System.out.printf("time to verdict ms p50=%d p99=%d max=%d%n",
+                stats.percentile(stats.verdictMillis, 50), stats.percentile(stats.verdictMillis, 99),
+                stats.percentile(stats.verdictMillis, 100));
+        System.out.printf("stomp frames delivered=%d%n", frames.get());
+    }
+
+    private static long signUp(HttpClient http, String url, String name) throws Exception {
+        String body = "{\"username\":\"load-" + name + "\",\"email\":\"load-" + name + "@example.com\","
+                + "\"fullName\":\"Load " + name + "\",\"password\":\"load\"}";
+        HttpResponse<String> response = http.send(post(url + "/api/auth/signup", body), HttpResponse.BodyHandlers.ofString());
+        Matcher id = ID.matcher(response.body());
+        if (response.statusCode() != 200 || !id.find()) {
+            throw new IllegalStateException("Sign-up failed: " + response.body());
+        }
+        return Long.parseLong(id.group(1));
+    }
+
+    private static void submitAndWait(HttpClient http, String url, long userId, String language, String client,
+                                      long pollMillis, long deadline, Stats stats) throws Exception {
+        String code = "PYTHON".equals(language)
+                ? "# " + client + "-" + System.nanoTime() + "\\na,b=map(int,input().split());print(a+b)"
+                : "import java.util.*;public class Solution{/* " + client + "-" + System.nanoTime() + " */"
+                + "public static void main(String[] a){Scanner s=new Scanner(System.in);"
+                + "System.out.println(s.nextInt()+s.nextInt());}}";
+        String body = "{\"userId\":" + userId + ",\"problemId\":1,\"contestId\":1,\"language\":\"" + language
+                + "\",\"code\":\"" + code + "\"}";
+        long submitted = System.nanoTime();
+        HttpResponse<String> response = http.send(post(url + "/api/submissions", body), HttpResponse.BodyHandlers.ofString());
+        stats.submitMillis.add(millisSince(submitted));
+        if (response.statusCode() == 429 || response.statusCode() == 503) {
+            stats.throttled.incrementAndGet();
+            Thread.sleep(response.headers().firstValue("Retry-After").map(Long::parseLong).orElse(1L) * 1000);
+            return;
+        }
+        Matcher id = ID.matcher(response.body());
+        if (response.statusCode() != 200 || !id.find()) {
+            stats.errors.incrementAndGet();
+            return;
+        }
+        stats.accepted.incrementAndGet();
+        HttpRequest poll = HttpRequest.newBuilder(URI.create(url + "/api/submissions/" + id.group(1))).GET().build();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(pollMillis);
+            long polled = System.nanoTime();
+            HttpResponse<String> state = http.send(poll, HttpResponse.BodyHandlers.ofString());
+            stats.pollMillis.add(millisSince(polled));
+            Matcher status = STATUS.matcher(state.body());
+            if (status.find() && !status.group(1).equals("PENDING") && !status.group(1).equals("JUDGING")) {
+                stats.judged.incrementAndGet();
+                stats.verdictMillis.add(millisSince(submitted));
+                return;
+            }
+        }
+    }
+
+    private static WebSocket watch(HttpClient http, String url, AtomicLong frames) {
+        WebSocket.Listener listener = new WebSocket.Listener() {
+            @Override
+            public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+                if (data.toString().startsWith("MESSAGE")) {
+                    frames.incrementAndGet();
+                }
+                socket.request(1);
+                return null;
+            }
+        };
+        WebSocket socket = http.newWebSocketBuilder()
+                .buildAsync(URI.create(url.replaceFirst("^http", "ws") + "/ws-submissions/websocket"), listener)
+                .join();
+        socket.sendText("CONNECT\naccept-version:1.2\nhost:localhost\n\n\0", true).join();
+        socket.sendText("SUBSCRIBE\nid:0\ndestination:/topic/contest/1/submissions\n\n\0", true).join();
+        return socket;
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static class Stats {
+        final AtomicLong accepted = new AtomicLong();
+        final AtomicLong judged = new AtomicLong();
+        final AtomicLong throttled = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final List<Long> submitMillis = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> pollMillis = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> verdictMillis = Collections.synchronizedList(new ArrayList<>());
+
+        long percentile(List<Long> samples, int percentile) {
+            List<Long> sorted;
+            synchronized (samples) {
+                sorted = new ArrayList<>(samples);
+            }
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(sorted);
+            return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1));
+        }
+    }
+}
@@ -4,10 +4,13 @@ import com.shodhcode.entity.*;
 import com.shodhcode.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 
+// Judge workers share the API node's database and must not seed it a second time
 @Component
+@Profile("!judge-worker")
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
     private final ContestRepository contestRepository;
@@ -17,6 +20,11 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        // A durable database keeps the sample data from the first start
+        if (contestRepository.count() > 0) {
+            return;
+        }
+
         // Create sample users
         User user1 = User.builder()
                 .username("alice")
@@ -82,8 +90,16 @@ public class DataInitializer implements CommandLineRunner {
                 .isHidden(false)
                 .build();
 
+        TestCase tc1_3 = TestCase.builder()
+                .problem(problem1)
+                .input("-7 100")
+                .expectedOutput("93")
+                .isHidden(true)
+                .build();
+
         testCaseRepository.save(tc1_1);
         testCaseRepository.save(tc1_2);
+        testCaseRepository.save(tc1_3);
 
         // Problem 2: Reverse a String
         Problem problem2 = Problem.builder()
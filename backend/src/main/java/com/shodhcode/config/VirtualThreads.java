@@ -0,0 +1,58 @@
+package com.shodhcode.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads for work that mostly blocks (request handling, STOMP delivery, judge process I/O)
+ * when spring.threads.virtual.enabled is set and the app runs on Java 21 or later. The backend
+ * still builds for Java 17 by default, so the Java 21 API is reached reflectively.
+ */
+@Component
+@Slf4j
+public class VirtualThreads {
+    private final boolean enabled;
+
+    public VirtualThreads(@Value("${spring.threads.virtual.enabled:false}") boolean requested) {
+        enabled = requested && Runtime.version().feature() >= 21;
+        if (requested && !enabled) {
+            log.warn("Virtual threads need Java 21 or later, running on {}; using platform threads",
+                    Runtime.version());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * A factory for virtual threads named {@code prefix0}, {@code prefix1}, ...
+     */
+    public ThreadFactory factory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+
+    /**
+     * An executor that starts a new virtual thread per task.
+     */
+    public ExecutorService newPerTaskExecutor(String prefix) {
+        try {
+            Method newThreadPerTaskExecutor = java.util.concurrent.Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.shodhcode.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final VirtualThreads virtualThreads;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -21,4 +26,35 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-submissions").setAllowedOrigins("*").withSockJS();
         registry.addEndpoint("/ws-leaderboard").setAllowedOrigins("*").withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads.isEnabled()) {
+            registration.taskExecutor(virtualThreadExecutor("stomp-inbound-"));
+        }
+    }
+
+    // Outbound delivery blocks on slow clients' sockets, which is cheap on virtual threads
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads.isEnabled()) {
+            registration.taskExecutor(virtualThreadExecutor("stomp-outbound-"));
+        }
+    }
+
+    /**
+     * Starts a virtual thread per message instead of pooling threads. ChannelRegistration only
+     * accepts a ThreadPoolTaskExecutor, so this is one with no core threads and a hand-off queue:
+     * every task gets a new virtual thread, which ends as soon as the task is done. Spring
+     * initialises and shuts it down like any channel executor, and its stats are the real ones.
+     */
+    private ThreadPoolTaskExecutor virtualThreadExecutor(String prefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(virtualThreads.factory(prefix));
+        executor.setCorePoolSize(0);
+        executor.setMaxPoolSize(Integer.MAX_VALUE);
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(0);
+        return executor;
+    }
 }
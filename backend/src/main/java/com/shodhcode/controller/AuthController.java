@@ -5,6 +5,7 @@ import com.shodhcode.dto.SignupRequest;
 import com.shodhcode.dto.AuthResponse;
 import com.shodhcode.entity.User;
 import com.shodhcode.repository.UserRepository;
+import com.shodhcode.service.GlobalRankingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +19,9 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private GlobalRankingService globalRankingService;
+
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@RequestBody SignupRequest request) {
         // Check if username already exists
@@ -41,6 +45,7 @@ public class AuthController {
                 .build();
 
         User savedUser = userRepository.save(user);
+        globalRankingService.markChanged();
 
         return ResponseEntity.ok(new AuthResponse(
                 "User registered successfully",
@@ -0,0 +1,56 @@
+package com.shodhcode.controller;
+
+import com.shodhcode.dto.CompilerStats;
+import com.shodhcode.dto.JudgeQueueStats;
+import com.shodhcode.dto.ResultCacheStats;
+import com.shodhcode.dto.TestCaseCacheStats;
+import com.shodhcode.service.CompiledArtifactCache;
+import com.shodhcode.service.JavaSourceCompiler;
+import com.shodhcode.service.JudgeScheduler;
+import com.shodhcode.service.TestCaseCache;
+import com.shodhcode.service.VerdictCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/judge")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class JudgeController {
+    private final JudgeScheduler judgeScheduler;
+    private final JavaSourceCompiler javaSourceCompiler;
+    private final TestCaseCache testCaseCache;
+    private final VerdictCache verdictCache;
+    private final CompiledArtifactCache compiledArtifactCache;
+
+    @GetMapping("/stats")
+    public ResponseEntity<JudgeQueueStats> getStats() {
+        return ResponseEntity.ok(judgeScheduler.getStats());
+    }
+
+    @GetMapping("/compiler/stats")
+    public ResponseEntity<CompilerStats> getCompilerStats() {
+        return ResponseEntity.ok(javaSourceCompiler.getStats());
+    }
+
+    @GetMapping("/tests/cache/stats")
+    public ResponseEntity<TestCaseCacheStats> getTestCaseCacheStats() {
+        return ResponseEntity.ok(testCaseCache.getStats());
+    }
+
+    @GetMapping("/results/cache/stats")
+    public ResponseEntity<ResultCacheStats> getResultCacheStats() {
+        return ResponseEntity.ok(ResultCacheStats.builder()
+                .verdictEntries(verdictCache.getEntries())
+                .verdictHits(verdictCache.getHits())
+                .verdictMisses(verdictCache.getMisses())
+                .verdictEvictions(verdictCache.getEvictions())
+                .artifactEntries(compiledArtifactCache.getEntries())
+                .artifactBytes(compiledArtifactCache.getCachedBytes())
+                .artifactHits(compiledArtifactCache.getHits())
+                .artifactMisses(compiledArtifactCache.getMisses())
+                .artifactEvictions(compiledArtifactCache.getEvictions())
+                .build());
+    }
+}
@@ -1,24 +1,35 @@
 package com.shodhcode.controller;
 
+import com.shodhcode.dto.ContestLeaderboardEntry;
 import com.shodhcode.entity.Problem;
-import com.shodhcode.entity.Submission;
+import com.shodhcode.entity.StandingsSnapshot;
 import com.shodhcode.repository.ProblemRepository;
-import com.shodhcode.repository.SubmissionRepository;
+import com.shodhcode.service.LeaderboardService;
+import com.shodhcode.service.StandingsSnapshotService;
+import com.shodhcode.service.TestCaseCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/problems")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class ProblemController {
+    private static final int MAX_LEADERBOARD_PAGE_SIZE = 500;
+
     private final ProblemRepository problemRepository;
-    private final SubmissionRepository submissionRepository;
+    private final LeaderboardService leaderboardService;
+    private final TestCaseCache testCaseCache;
+    private final StandingsSnapshotService standingsSnapshots;
+
+    @Value("${leaderboard.snapshot.max-age-seconds:3600}")
+    private long finalStandingsMaxAgeSeconds;
 
     @GetMapping("/contest/{contestId}")
     public ResponseEntity<List<Problem>> getProblemsByContest(@PathVariable Long contestId) {
@@ -34,79 +45,53 @@ public class ProblemController {
 
     @PostMapping
     public ResponseEntity<Problem> createProblem(@RequestBody Problem problem) {
-        return ResponseEntity.ok(problemRepository.save(problem));
+        Problem saved = problemRepository.save(problem);
+        // Posting an existing id replaces that problem, possibly with other limits or another
+        // checker, so judges on every node must not keep serving verdicts judged under the old ones
+        testCaseCache.bumpVersion(saved.getId());
+        testCaseCache.invalidate(saved.getId());
+        return ResponseEntity.ok(saved);
     }
 
     @GetMapping("/contest/{contestId}/leaderboard")
-    public ResponseEntity<?> getContestLeaderboard(@PathVariable Long contestId) {
-        try {
-            List<Submission> submissions = submissionRepository.findByContestIdOrderBySubmittedAtDesc(contestId);
-            
-            if (submissions == null || submissions.isEmpty()) {
-                return ResponseEntity.ok(List.of()); // Return empty list instead of error
-            }
-            
-            // Group by user and calculate scores
-            Map<Long, Map<String, Object>> userScores = new HashMap<>();
-            
-            for (Submission submission : submissions) {
-                if (submission == null || submission.getStatus() == null) {
-                    continue;
-                }
-                
-                if (!submission.getStatus().equals(Submission.SubmissionStatus.ACCEPTED)) {
-                    continue;
-                }
-                
-                if (submission.getUser() == null || submission.getProblem() == null) {
-                    continue;
-                }
-                
-                Long userId = submission.getUser().getId();
-                Problem problem = submission.getProblem();
-                
-                String difficulty = problem.getDifficulty() != null ? problem.getDifficulty() : "MEDIUM";
-                
-                // Calculate points based on difficulty
-                int points = 0;
-                if ("EASY".equals(difficulty)) {
-                    points = 10;
-                } else if ("MEDIUM".equals(difficulty)) {
-                    points = 25;
-                } else if ("HARD".equals(difficulty)) {
-                    points = 50;
-                }
-                
-                // Apply optimization bonus (based on execution time and memory)
-                double optimizationBonus = 1.0;
-                if (submission.getExecutionTime() != null && submission.getMemoryUsed() != null) {
-                    if (submission.getExecutionTime() < 100 && submission.getMemoryUsed() < 50) {
-                        optimizationBonus = 1.2; // 20% bonus for highly optimized solutions
-                    } else if (submission.getExecutionTime() < 200 && submission.getMemoryUsed() < 100) {
-                        optimizationBonus = 1.1; // 10% bonus for optimized solutions
-                    }
-                }
-                
-                points = (int) (points * optimizationBonus);
-                
-                userScores.putIfAbsent(userId, new HashMap<>());
-                Map<String, Object> userScore = userScores.get(userId);
-                
-                userScore.put("userId", userId);
-                userScore.put("username", submission.getUser().getUsername());
-                userScore.put("totalScore", (int) userScore.getOrDefault("totalScore", 0) + points);
-                userScore.put("problemsSolved", (int) userScore.getOrDefault("problemsSolved", 0) + 1);
-            }
-            
-            // Sort by score descending
-            List<Map<String, Object>> leaderboard = userScores.values().stream()
-                    .sorted((a, b) -> Integer.compare((int) b.get("totalScore"), (int) a.get("totalScore")))
-                    .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(leaderboard);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch leaderboard: " + e.getMessage()));
+    public ResponseEntity<List<ContestLeaderboardEntry>> getContestLeaderboard(
+            @PathVariable Long contestId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_LEADERBOARD_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+        Optional<StandingsSnapshotService.PublishedStandings> snapshot = standingsSnapshots.published(contestId);
+        if (snapshot.isPresent()) {
+            // A request whose If-None-Match carries this ETag gets a 304 without a body
+            return cached(snapshot.get()).body(snapshot.get().page(offset, pageSize));
+        }
+        return ResponseEntity.ok(leaderboardService.standings(contestId)
+                .map(standings -> standings.page(offset, pageSize))
+                .orElse(List.of()));
+    }
+
+    @GetMapping("/contest/{contestId}/leaderboard/users/{userId}")
+    public ResponseEntity<ContestLeaderboardEntry> getContestRank(@PathVariable Long contestId, @PathVariable Long userId) {
+        Optional<StandingsSnapshotService.PublishedStandings> snapshot = standingsSnapshots.published(contestId);
+        if (snapshot.isPresent()) {
+            return snapshot.get().entryFor(userId)
+                    .map(entry -> cached(snapshot.get()).body(entry))
+                    .orElse(ResponseEntity.notFound().build());
         }
+        return leaderboardService.standings(contestId)
+                .flatMap(standings -> standings.entryFor(userId))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Final standings never change and may be cached outright; frozen ones are replaced by the final
+     * standings, so clients revalidate them, which costs a 304 while the board stays frozen.
+     */
+    private ResponseEntity.BodyBuilder cached(StandingsSnapshotService.PublishedStandings snapshot) {
+        CacheControl cacheControl = snapshot.kind() == StandingsSnapshot.Kind.FINAL
+                ? CacheControl.maxAge(finalStandingsMaxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache().cachePublic();
+        return ResponseEntity.ok().eTag(snapshot.etag()).cacheControl(cacheControl);
     }
 }
@@ -2,51 +2,140 @@ package com.shodhcode.controller;
 
 import com.shodhcode.dto.SubmissionRequest;
 import com.shodhcode.dto.SubmissionResponse;
+import com.shodhcode.entity.Contest;
+import com.shodhcode.entity.Problem;
 import com.shodhcode.entity.Submission;
+import com.shodhcode.entity.User;
 import com.shodhcode.repository.*;
-import com.shodhcode.service.JudgeService;
+import com.shodhcode.service.JudgeScheduler;
+import com.shodhcode.service.LanguageRuntime;
+import com.shodhcode.service.LanguageRuntimes;
+import com.shodhcode.service.SubmissionFeedService;
+import com.shodhcode.service.SubmissionRateLimiter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/submissions")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class SubmissionController {
+    private static final int MAX_FEED_PAGE_SIZE = 200;
+
     private final SubmissionRepository submissionRepository;
     private final UserRepository userRepository;
     private final ProblemRepository problemRepository;
     private final ContestRepository contestRepository;
-    private final JudgeService judgeService;
+    private final JudgeScheduler judgeScheduler;
+    private final LanguageRuntimes languageRuntimes;
+    private final SubmissionFeedService submissionFeedService;
+    private final SubmissionRateLimiter rateLimiter;
+
+    @Value("${admin.token:}")
+    private String adminToken;
 
     @PostMapping
-    public ResponseEntity<SubmissionResponse> submitCode(@RequestBody SubmissionRequest request) {
+    public ResponseEntity<?> submitCode(@RequestBody SubmissionRequest request) {
+        Optional<LanguageRuntime> runtime = languageRuntimes.find(
+                request.getLanguage() != null ? request.getLanguage() : "JAVA");
+        if (runtime.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Unsupported language, expected one of " + languageRuntimes.getLanguages()));
+        }
+        Optional<User> user = Optional.ofNullable(request.getUserId()).flatMap(userRepository::findById);
+        Optional<Problem> problem = Optional.ofNullable(request.getProblemId()).flatMap(problemRepository::findById);
+        Optional<Contest> contest = Optional.ofNullable(request.getContestId()).flatMap(contestRepository::findById);
+        if (user.isEmpty() || problem.isEmpty() || contest.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown user, problem or contest"));
+        }
+        if (!judgeScheduler.hasCapacity()) {
+            return judgeQueueFull();
+        }
+        // Tokens are only taken for submissions that can be accepted, and given back if it fails after all
+        long retryAfterMillis = rateLimiter.tryAcquire(user.get().getId(), contest.get().getId());
+        if (retryAfterMillis > 0) {
+            long retryAfterSeconds = (retryAfterMillis + 999) / 1000;
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", Long.toString(retryAfterSeconds))
+                    .body(Map.of("error", "Too many submissions, please retry in " + retryAfterSeconds + " s"));
+        }
+
         Submission submission = Submission.builder()
-                .user(userRepository.findById(request.getUserId()).orElseThrow())
-                .problem(problemRepository.findById(request.getProblemId()).orElseThrow())
-                .contest(contestRepository.findById(request.getContestId()).orElseThrow())
+                .user(user.get())
+                .problem(problem.get())
+                .contest(contest.get())
                 .code(request.getCode())
-                .language(request.getLanguage() != null ? request.getLanguage() : "JAVA")
+                .language(runtime.get().getLanguage())
                 .status(Submission.SubmissionStatus.PENDING)
                 .submittedAt(LocalDateTime.now())
                 .build();
 
-        submission = submissionRepository.save(submission);
-        
-        // Judge asynchronously
-        new Thread(() -> judgeService.judgeSubmission(submission.getId())).start();
+        try {
+            submission = submissionRepository.save(submission);
+        } catch (RuntimeException e) {
+            rateLimiter.release(user.get().getId(), contest.get().getId());
+            throw e;
+        }
+
+        // Judge asynchronously on the bounded worker pool
+        if (!judgeScheduler.submit(submission.getId(), user.get().getId())) {
+            submissionRepository.delete(submission);
+            rateLimiter.release(user.get().getId(), contest.get().getId());
+            return judgeQueueFull();
+        }
 
         return ResponseEntity.ok(mapToResponse(submission));
     }
 
+    private ResponseEntity<?> judgeQueueFull() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "5")
+                .body(Map.of("error", "Judge queue is full, please retry shortly"));
+    }
+
+    // Newest first; pass nextCursor as ?before= for older submissions
     @GetMapping("/contest/{contestId}")
-    public ResponseEntity<List<SubmissionResponse>> getContestSubmissions(@PathVariable Long contestId) {
-        List<Submission> submissions = submissionRepository.findByContestIdOrderBySubmittedAtDesc(contestId);
-        return ResponseEntity.ok(submissions.stream().map(this::mapToResponse).collect(Collectors.toList()));
+    public ResponseEntity<?> getContestSubmissions(
+            @PathVariable Long contestId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit) {
+        SubmissionFeedService.Cursor cursor;
+        try {
+            cursor = before == null || before.isBlank() ? null : SubmissionFeedService.Cursor.parse(before);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(submissionFeedService.page(contestId, cursor,
+                Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE))));
+    }
+
+    /**
+     * Every submission of the contest with code and output, as NDJSON. Requires the X-Admin-Token
+     * header to match admin.token; disabled while no token is configured.
+     */
+    @GetMapping(value = "/contest/{contestId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportContestSubmissions(
+            @PathVariable Long contestId,
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (adminToken.isBlank() || !MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8),
+                String.valueOf(token).getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=contest-" + contestId + "-submissions.ndjson")
+                .body(out -> submissionFeedService.export(contestId, out));
     }
 
     @GetMapping("/{id}")
@@ -67,6 +156,12 @@ public class SubmissionController {
                 .error(submission.getError())
                 .executionTime(submission.getExecutionTime())
                 .memoryUsed(submission.getMemoryUsed())
+                .samplesPassed(submission.getSamplesPassed())
+                .samplesTotal(submission.getSamplesTotal())
+                .hiddenPassed(submission.getHiddenPassed())
+                .hiddenTotal(submission.getHiddenTotal())
+                .failedTier(submission.getFailedTier())
+                .failedTestNumber(submission.getFailedTestNumber())
                 .submittedAt(submission.getSubmittedAt())
                 .language(submission.getLanguage())
                 .build();
@@ -1,22 +1,42 @@
 package com.shodhcode.controller;
 
+import com.shodhcode.dto.UserSummary;
 import com.shodhcode.entity.User;
 import com.shodhcode.repository.UserRepository;
+import com.shodhcode.service.GlobalRankingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final GlobalRankingService globalRankingService;
 
+    // Pages by id: pass the last id seen as ?after= for the next page
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<List<UserSummary>> getAllUsers(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize(limit)))
+                .stream()
+                .map(row -> UserSummary.builder()
+                        .id(row.getId())
+                        .username(row.getUsername())
+                        .fullName(row.getFullName())
+                        .score(row.getScore())
+                        .problemsSolved(row.getProblemsSolved())
+                        .build())
+                .collect(Collectors.toList()));
     }
 
     @GetMapping("/{id}")
@@ -28,13 +48,25 @@ public class UserController {
 
     @PostMapping
     public ResponseEntity<User> createUser(@RequestBody User user) {
-        return ResponseEntity.ok(userRepository.save(user));
+        User saved = userRepository.save(user);
+        globalRankingService.markChanged();
+        return ResponseEntity.ok(saved);
     }
 
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<User>> getLeaderboard() {
-        List<User> users = userRepository.findAll();
-        users.sort((a, b) -> b.getScore().compareTo(a.getScore()));
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getLeaderboard(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        GlobalRankingService.Cursor cursor;
+        try {
+            cursor = after == null || after.isBlank() ? null : GlobalRankingService.Cursor.parse(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Expected after=score,id"));
+        }
+        return ResponseEntity.ok(globalRankingService.page(cursor, pageSize(limit)));
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 }
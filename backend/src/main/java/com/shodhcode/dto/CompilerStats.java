@@ -0,0 +1,18 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompilerStats {
+    private String mode;
+    private Integer pooledFileManagers;
+    private Long inProcessCompilations;
+    private Long inProcessP50Millis;
+    private Long inProcessP99Millis;
+    private Long forkCompilations;
+    private Long forkP50Millis;
+    private Long forkP99Millis;
+}
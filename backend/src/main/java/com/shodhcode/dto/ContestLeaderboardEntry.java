@@ -0,0 +1,16 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContestLeaderboardEntry {
+    private Integer rank;
+    private Long userId;
+    private String username;
+    private Integer totalScore;
+    private Integer problemsSolved;
+    private Long penaltyMinutes;
+}
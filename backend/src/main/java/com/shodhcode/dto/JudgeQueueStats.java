@@ -0,0 +1,20 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JudgeQueueStats {
+    private String queueType;
+    private Integer workers;
+    private Integer activeWorkers;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long completedJobs;
+    private Long rejectedJobs;
+    private Long averageWaitMillis;
+    private Long maxWaitMillis;
+    private Long lastWaitMillis;
+}
@@ -0,0 +1,17 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardUpdate {
+    // SNAPSHOT carries every row; DELTA only the rows that changed since the previous version
+    private String type;
+    private Long contestId;
+    private Long version;
+    private Integer totalEntries;
+    private List<ContestLeaderboardEntry> rows;
+}
@@ -0,0 +1,19 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultCacheStats {
+    private Long verdictEntries;
+    private Long verdictHits;
+    private Long verdictMisses;
+    private Long verdictEvictions;
+    private Long artifactEntries;
+    private Long artifactBytes;
+    private Long artifactHits;
+    private Long artifactMisses;
+    private Long artifactEvictions;
+}
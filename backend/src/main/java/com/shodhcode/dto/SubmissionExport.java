@@ -0,0 +1,30 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionExport {
+    private Long id;
+    private Long contestId;
+    private Long userId;
+    private String username;
+    private Long problemId;
+    private String problemTitle;
+    private String language;
+    private String code;
+    private String status;
+    private String verdict;
+    private String output;
+    private String error;
+    private Integer executionTime;
+    private Integer memoryUsed;
+    private Integer samplesPassed;
+    private Integer samplesTotal;
+    private Integer hiddenPassed;
+    private Integer hiddenTotal;
+    private LocalDateTime submittedAt;
+}
@@ -0,0 +1,14 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionFeedPage {
+    private List<SubmissionSummary> entries;
+    // "submittedAt,id" of the last entry, to pass as ?before= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -17,6 +17,12 @@ public class SubmissionResponse {
     private String error;
     private Integer executionTime;
     private Integer memoryUsed;
+    private Integer samplesPassed;
+    private Integer samplesTotal;
+    private Integer hiddenPassed;
+    private Integer hiddenTotal;
+    private String failedTier;
+    private Integer failedTestNumber;
     private LocalDateTime submittedAt;
     private String language;
 }
@@ -0,0 +1,21 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionSummary {
+    private Long id;
+    private Long userId;
+    private String username;
+    private Long problemId;
+    private String status;
+    private String verdict;
+    private Integer executionTime;
+    private Integer memoryUsed;
+    private String language;
+    private LocalDateTime submittedAt;
+}
@@ -0,0 +1,18 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TestCaseCacheStats {
+    private Integer cachedProblems;
+    private Long cachedBytes;
+    private Long capacityBytes;
+    private Long hits;
+    private Long misses;
+    private Double hitRatio;
+    private Long evictions;
+    private Long invalidations;
+}
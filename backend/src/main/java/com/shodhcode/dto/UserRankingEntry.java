@@ -0,0 +1,16 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserRankingEntry {
+    private Integer rank;
+    private Long userId;
+    private String username;
+    private String fullName;
+    private Long score;
+    private Integer problemsSolved;
+}
@@ -0,0 +1,14 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserRankingPage {
+    private List<UserRankingEntry> entries;
+    // "score,id" of the last entry, to pass as ?after= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.shodhcode.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSummary {
+    private Long id;
+    private String username;
+    private String fullName;
+    private Long score;
+    private Integer problemsSolved;
+}
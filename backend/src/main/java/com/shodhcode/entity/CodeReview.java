@@ -12,10 +12,11 @@ import java.time.LocalDateTime;
 @Builder
 public class CodeReview {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "code_reviews_seq")
+    @SequenceGenerator(name = "code_reviews_seq", sequenceName = "code_reviews_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "submission_id", nullable = false)
     private Submission submission;
 
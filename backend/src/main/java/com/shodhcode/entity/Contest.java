@@ -1,18 +1,26 @@
 package com.shodhcode.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
+// Problems reference their contest lazily, as a Hibernate proxy whose internals are not part of the JSON
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "contests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Contest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contests_seq")
+    @SequenceGenerator(name = "contests_seq", sequenceName = "contests_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
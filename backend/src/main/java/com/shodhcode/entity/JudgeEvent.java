@@ -0,0 +1,37 @@
+package com.shodhcode.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written by a judge worker when a submission changes state, so the API nodes can push
+ * the change to WebSocket subscribers. Rows are kept for a while and then purged.
+ */
+@Entity
+@Table(name = "judge_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JudgeEvent {
+    @Id
+    // Identity rather than a pooled sequence: the relay reads events in id order, which pre-allocated
+    // id blocks on several nodes would scramble
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long submissionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "VARCHAR(10)", nullable = false)
+    private EventType type;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum EventType {
+        JUDGING, JUDGED
+    }
+}
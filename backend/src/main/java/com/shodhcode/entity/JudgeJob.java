@@ -0,0 +1,58 @@
+package com.shodhcode.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A submission waiting for or being judged when the judge queue is database-backed. Workers lease
+ * a row, renew the lease while judging and delete the row when done; a row whose lease lapsed is
+ * claimed again by another worker.
+ */
+@Entity
+@Table(name = "judge_jobs", indexes = {
+        @Index(name = "idx_judge_jobs_status", columnList = "status, id"),
+        @Index(name = "idx_judge_jobs_turn", columnList = "status, user_turn, id"),
+        @Index(name = "idx_judge_jobs_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JudgeJob {
+    @Id
+    // Identity rather than a pooled sequence, so that jobs are claimed in roughly the order they were queued
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long submissionId;
+
+    private Long userId;
+
+    // The user's sequence number for this job, see DatabaseJudgeQueue#offer
+    @Column(columnDefinition = "INT DEFAULT 0")
+    @Builder.Default
+    private Integer userTurn = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "VARCHAR(10) DEFAULT 'QUEUED'")
+    @Builder.Default
+    private JobStatus status = JobStatus.QUEUED;
+
+    // Worker node holding the lease and when the lease lapses unless a heartbeat renews it
+    @Column(columnDefinition = "VARCHAR(100)")
+    private String leaseOwner;
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(columnDefinition = "INT DEFAULT 0")
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime enqueuedAt;
+
+    public enum JobStatus {
+        QUEUED, LEASED
+    }
+}
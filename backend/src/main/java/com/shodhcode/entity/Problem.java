@@ -1,20 +1,29 @@
 package com.shodhcode.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "problems")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Problem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "problems_seq")
+    @SequenceGenerator(name = "problems_seq", sequenceName = "problems_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contest_id", nullable = false)
     private Contest contest;
 
@@ -44,4 +53,36 @@ public class Problem {
 
     @Column(columnDefinition = "INT DEFAULT 0")
     private Integer attemptCount = 0;
+
+    @Column(columnDefinition = "INT DEFAULT 2000")
+    @Builder.Default
+    private Integer timeLimitMs = 2000;
+
+    @Column(columnDefinition = "INT DEFAULT 256")
+    @Builder.Default
+    private Integer memoryLimitMb = 256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "VARCHAR(20) DEFAULT 'TOKENS'")
+    @Builder.Default
+    private CheckerType checkerType = CheckerType.TOKENS;
+
+    // Tolerances of the FLOAT checker; a value matches if it is within either of them
+    private Double absoluteEpsilon;
+    private Double relativeEpsilon;
+
+    // Source of the SPECIAL checker; accepted on create but never sent back, as it may reveal the answers
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column(columnDefinition = "TEXT")
+    private String checkerSource;
+
+    // Bumped in the database whenever the tests change, see ProblemCounterRepository; never written from here
+    @JsonIgnore
+    @Column(columnDefinition = "BIGINT DEFAULT 0", nullable = false, updatable = false)
+    @Builder.Default
+    private Long testsVersion = 0L;
+
+    public enum CheckerType {
+        EXACT, TOKENS, FLOAT, UNORDERED_LINES, SPECIAL
+    }
 }
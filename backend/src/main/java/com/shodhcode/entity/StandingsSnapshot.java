@@ -0,0 +1,49 @@
+package com.shodhcode.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+/**
+ * Standings of a contest written once and never changed: FROZEN when the scoreboard freeze starts,
+ * FINAL when the contest is completed and its last submissions are judged. The entries are kept as
+ * the JSON array the leaderboard endpoint serves, with its ETag.
+ */
+@Entity
+@Immutable
+@Table(name = "standings_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_standings_snapshots_contest_kind", columnNames = {"contest_id", "kind"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StandingsSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "standings_snapshots_seq")
+    @SequenceGenerator(name = "standings_snapshots_seq", sequenceName = "standings_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long contestId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "VARCHAR(10)", nullable = false)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    @Column(nullable = false)
+    private Integer entryCount;
+
+    @Column(columnDefinition = "VARCHAR(64)", nullable = false)
+    private String etag;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String entries;
+
+    public enum Kind {
+        FROZEN, FINAL
+    }
+}
@@ -1,29 +1,36 @@
 package com.shodhcode.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "submissions")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Back the contest feed (newest first, keyset on submitted_at then id) and per-user lookups within a contest
+@Table(name = "submissions", indexes = {
+        @Index(name = "idx_submissions_contest_time", columnList = "contest_id, submitted_at, id"),
+        @Index(name = "idx_submissions_user_contest", columnList = "user_id, contest_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Submission {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "submissions_seq")
+    @SequenceGenerator(name = "submissions_seq", sequenceName = "submissions_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "problem_id", nullable = false)
     private Problem problem;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contest_id", nullable = false)
     private Contest contest;
 
@@ -31,7 +38,7 @@ public class Submission {
     private String code;
 
     @Enumerated(EnumType.STRING)
-    @Column(columnDefinition = "VARCHAR(20) DEFAULT 'PENDING'")
+    @Column(columnDefinition = "VARCHAR(30) DEFAULT 'PENDING'")
     private SubmissionStatus status = SubmissionStatus.PENDING;
 
     @Column(columnDefinition = "VARCHAR(50)")
@@ -43,12 +50,25 @@ public class Submission {
     @Column(columnDefinition = "TEXT")
     private String error;
 
+    // Max CPU time across the tests that ran, in milliseconds
     @Column(columnDefinition = "INT DEFAULT 0")
     private Integer executionTime = 0;
 
+    // Max peak memory across the tests that ran, in megabytes
     @Column(columnDefinition = "INT DEFAULT 0")
     private Integer memoryUsed = 0;
 
+    // Per-tier progress: samples run first, hidden tests only once every sample passed
+    private Integer samplesPassed;
+    private Integer samplesTotal;
+    private Integer hiddenPassed;
+    private Integer hiddenTotal;
+
+    // Tier (SAMPLE or HIDDEN) and 1-based number within it of the test that rejected the submission
+    @Column(columnDefinition = "VARCHAR(10)")
+    private String failedTier;
+    private Integer failedTestNumber;
+
     @Column(nullable = false)
     private LocalDateTime submittedAt;
 
@@ -56,6 +76,7 @@ public class Submission {
     private String language = "JAVA";
 
     public enum SubmissionStatus {
-        PENDING, JUDGING, ACCEPTED, WRONG_ANSWER, RUNTIME_ERROR, TIME_LIMIT_EXCEEDED, COMPILATION_ERROR
+        PENDING, JUDGING, ACCEPTED, WRONG_ANSWER, RUNTIME_ERROR, TIME_LIMIT_EXCEEDED, COMPILATION_ERROR,
+        OUTPUT_LIMIT_EXCEEDED, MEMORY_LIMIT_EXCEEDED
     }
 }
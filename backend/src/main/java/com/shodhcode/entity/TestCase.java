@@ -1,5 +1,6 @@
 package com.shodhcode.entity;
 
+import com.shodhcode.service.TestCaseCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,12 +10,14 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(TestCaseCacheInvalidator.class)
 public class TestCase {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_cases_seq")
+    @SequenceGenerator(name = "test_cases_seq", sequenceName = "test_cases_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "problem_id", nullable = false)
     private Problem problem;
 
@@ -26,4 +29,9 @@ public class TestCase {
 
     @Column(columnDefinition = "BOOLEAN DEFAULT false")
     private Boolean isHidden = false;
+
+    // How many submissions this test rejected; hidden tests run most-rejecting first
+    @Column(columnDefinition = "BIGINT DEFAULT 0", nullable = false)
+    @Builder.Default
+    private Long rejectionCount = 0L;
 }
@@ -2,10 +2,21 @@ package com.shodhcode.repository;
 
 import com.shodhcode.entity.Contest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Repository
 public interface ContestRepository extends JpaRepository<Contest, Long> {
     List<Contest> findByStatus(Contest.ContestStatus status);
+
+    // Conditional on the current status, so only one node performs each transition
+    @Modifying
+    @Transactional
+    @Query("UPDATE Contest c SET c.status = :to WHERE c.id = :id AND c.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") Contest.ContestStatus from,
+                     @Param("to") Contest.ContestStatus to);
 }
@@ -0,0 +1,56 @@
+package com.shodhcode.repository;
+
+import com.shodhcode.entity.JudgeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JudgeJobRepository extends JpaRepository<JudgeJob, Long> {
+    long countByStatus(JudgeJob.JobStatus status);
+
+    // SKIP LOCKED lets concurrent workers each lock a different row instead of queueing on the same one.
+    // Must run inside a transaction that also records the lease
+    @Query(value = "SELECT * FROM judge_jobs WHERE status = 'QUEUED' OR lease_expires_at < :now "
+            + "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<JudgeJob> lockNextClaimable(@Param("now") LocalDateTime now);
+
+    // Round-robin across users: every user's first waiting job comes before anyone's second
+    @Query(value = "SELECT * FROM judge_jobs WHERE status = 'QUEUED' OR lease_expires_at < :now "
+            + "ORDER BY user_turn, id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<JudgeJob> lockNextClaimableByTurn(@Param("now") LocalDateTime now);
+
+    // The user's last turn among the jobs still in the table, leased ones included
+    @Query("SELECT MAX(j.userTurn) FROM JudgeJob j WHERE j.userId = :userId")
+    Optional<Integer> findMaxTurnByUserId(@Param("userId") Long userId);
+
+    // The round the workers are currently handing out
+    @Query("SELECT MIN(j.userTurn) FROM JudgeJob j WHERE j.status = :status")
+    Optional<Integer> findMinTurnByStatus(@Param("status") JudgeJob.JobStatus status);
+
+    // Row lock on the user, held until the enqueueing transaction commits
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JudgeJob j SET j.leaseExpiresAt = :until WHERE j.leaseOwner = :owner AND j.status = :status")
+    int renewLeases(@Param("owner") String owner, @Param("until") LocalDateTime until,
+                    @Param("status") JudgeJob.JobStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JudgeJob j SET j.status = :status, j.leaseOwner = NULL, j.leaseExpiresAt = NULL "
+            + "WHERE j.id = :id AND j.leaseOwner = :owner")
+    int releaseLeased(@Param("id") Long id, @Param("owner") String owner, @Param("status") JudgeJob.JobStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JudgeJob j WHERE j.id = :id AND j.leaseOwner = :owner")
+    int deleteLeased(@Param("id") Long id, @Param("owner") String owner);
+}
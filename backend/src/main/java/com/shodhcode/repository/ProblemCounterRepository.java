@@ -0,0 +1,25 @@
+package com.shodhcode.repository;
+
+/**
+ * Counters on problems that are read and written with plain SQL. A JPQL bulk update would make
+ * Hibernate drop the whole Problem cache region on every accepted submission, and the test-set
+ * version must come from the database rather than from this node's second-level cache.
+ */
+public interface ProblemCounterRepository {
+    /**
+     * Increments the solved count in the caller's transaction and evicts only this problem from the
+     * second-level cache once it commits.
+     */
+    int incrementSolvedCount(Long id);
+
+    /**
+     * Increments the test-set version in the caller's transaction. Judges on every node compare it
+     * with the version of their cached tests, so they reload them once this commits.
+     */
+    int incrementTestsVersion(Long id);
+
+    /**
+     * The committed test-set version, read past the second-level cache; 0 for an unknown problem.
+     */
+    long findTestsVersion(Long id);
+}
@@ -0,0 +1,49 @@
+package com.shodhcode.repository;
+
+import com.shodhcode.entity.Problem;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RequiredArgsConstructor
+class ProblemCounterRepositoryImpl implements ProblemCounterRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public int incrementSolvedCount(Long id) {
+        // Plain JDBC, so Hibernate does not see a bulk update; it joins the surrounding transaction
+        int updated = jdbcTemplate.update(
+                "UPDATE problems SET solved_count = COALESCE(solved_count, 0) + 1 WHERE id = ?", id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evicting earlier would let a concurrent read cache the old count again before the commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        } else {
+            evict(id);
+        }
+        return updated;
+    }
+
+    @Override
+    public int incrementTestsVersion(Long id) {
+        // The entity maps the column as not updatable, so no cached copy needs evicting
+        return jdbcTemplate.update("UPDATE problems SET tests_version = tests_version + 1 WHERE id = ?", id);
+    }
+
+    @Override
+    public long findTestsVersion(Long id) {
+        return jdbcTemplate.queryForList("SELECT tests_version FROM problems WHERE id = ?", Long.class, id)
+                .stream().findFirst().orElse(0L);
+    }
+
+    private void evict(Long id) {
+        entityManagerFactory.getCache().evict(Problem.class, id);
+    }
+}
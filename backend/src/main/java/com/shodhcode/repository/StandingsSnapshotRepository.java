@@ -0,0 +1,11 @@
+package com.shodhcode.repository;
+
+import com.shodhcode.entity.StandingsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface StandingsSnapshotRepository extends JpaRepository<StandingsSnapshot, Long> {
+    List<StandingsSnapshot> findByContestId(Long contestId);
+}
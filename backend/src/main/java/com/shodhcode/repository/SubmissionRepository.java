@@ -1,13 +1,98 @@
 package com.shodhcode.repository;
 
 import com.shodhcode.entity.Submission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     List<Submission> findByContestIdOrderBySubmittedAtDesc(Long contestId);
     List<Submission> findByUserIdAndContestId(Long userId, Long contestId);
     List<Submission> findByProblemIdOrderBySubmittedAtDesc(Long problemId);
+    List<Submission> findByStatusInOrderBySubmittedAtAsc(Collection<Submission.SubmissionStatus> statuses);
+    boolean existsByContestIdAndStatusIn(Long contestId, Collection<Submission.SubmissionStatus> statuses);
+
+    // Associations are lazy; each read path below fetches only what it uses, in the same query
+
+    // Judge and verdict delivery: limits and checker of the problem, the user's name for the standings
+    @EntityGraph(attributePaths = {"user", "problem"})
+    Optional<Submission> findWithUserAndProblemById(Long id);
+
+    // Code mentor: the problem statement goes into the review prompt
+    @EntityGraph(attributePaths = "problem")
+    Optional<Submission> findWithProblemById(Long id);
+
+    // Standings rebuild: user names and problem difficulty of every accepted submission
+    @EntityGraph(attributePaths = {"user", "problem"})
+    List<Submission> findByContestIdAndStatus(Long contestId, Submission.SubmissionStatus status);
+
+    // Feed columns only: no code, output or error, and the user's name comes from the same query
+    interface FeedRow {
+        Long getId();
+        Long getUserId();
+        String getUsername();
+        Long getProblemId();
+        Submission.SubmissionStatus getStatus();
+        String getVerdict();
+        Integer getExecutionTime();
+        Integer getMemoryUsed();
+        String getLanguage();
+        LocalDateTime getSubmittedAt();
+    }
+
+    @Query("SELECT s.id AS id, u.id AS userId, u.username AS username, s.problem.id AS problemId, "
+            + "s.status AS status, s.verdict AS verdict, s.executionTime AS executionTime, "
+            + "s.memoryUsed AS memoryUsed, s.language AS language, s.submittedAt AS submittedAt "
+            + "FROM Submission s JOIN s.user u WHERE s.contest.id = :contestId "
+            + "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<FeedRow> findFeed(@Param("contestId") Long contestId, Limit limit);
+
+    @Query("SELECT s.id AS id, u.id AS userId, u.username AS username, s.problem.id AS problemId, "
+            + "s.status AS status, s.verdict AS verdict, s.executionTime AS executionTime, "
+            + "s.memoryUsed AS memoryUsed, s.language AS language, s.submittedAt AS submittedAt "
+            + "FROM Submission s JOIN s.user u WHERE s.contest.id = :contestId "
+            + "AND (s.submittedAt < :submittedAt OR (s.submittedAt = :submittedAt AND s.id < :id)) "
+            + "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<FeedRow> findFeedBefore(@Param("contestId") Long contestId, @Param("submittedAt") LocalDateTime submittedAt,
+                                 @Param("id") Long id, Limit limit);
+
+    // Streams rows from an open cursor instead of materialising the result; needs an open transaction
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Submission s JOIN FETCH s.user JOIN FETCH s.problem "
+            + "WHERE s.contest.id = :contestId ORDER BY s.id")
+    Stream<Submission> streamByContestId(@Param("contestId") Long contestId);
+
+    // Moves only the status column, without rewriting the code and output of the whole row
+    @Modifying
+    @Transactional
+    @Query("UPDATE Submission s SET s.status = :status WHERE s.id = :id AND s.status IN :from")
+    int updateStatus(@Param("id") Long id, @Param("from") Collection<Submission.SubmissionStatus> from,
+                     @Param("status") Submission.SubmissionStatus status);
+
+    // Writes the verdict columns in one statement, only while the submission is still in one of the
+    // given statuses. Runs in the caller's transaction
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = :#{#submission.status}, s.verdict = :#{#submission.verdict}, "
+            + "s.output = :#{#submission.output}, s.error = :#{#submission.error}, "
+            + "s.executionTime = :#{#submission.executionTime}, s.memoryUsed = :#{#submission.memoryUsed}, "
+            + "s.samplesPassed = :#{#submission.samplesPassed}, s.samplesTotal = :#{#submission.samplesTotal}, "
+            + "s.hiddenPassed = :#{#submission.hiddenPassed}, s.hiddenTotal = :#{#submission.hiddenTotal}, "
+            + "s.failedTier = :#{#submission.failedTier}, s.failedTestNumber = :#{#submission.failedTestNumber} "
+            + "WHERE s.id = :#{#submission.id} AND s.status IN :from")
+    int saveVerdict(@Param("submission") Submission submission,
+                    @Param("from") Collection<Submission.SubmissionStatus> from);
 }
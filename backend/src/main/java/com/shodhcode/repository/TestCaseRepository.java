@@ -2,11 +2,21 @@ package com.shodhcode.repository;
 
 import com.shodhcode.entity.TestCase;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Repository
 public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
     List<TestCase> findByProblemIdAndIsHiddenFalse(Long problemId);
     List<TestCase> findByProblemId(Long problemId);
+    List<TestCase> findByProblemIdOrderByIdAsc(Long problemId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TestCase t SET t.rejectionCount = COALESCE(t.rejectionCount, 0) + 1 WHERE t.id = :id")
+    int incrementRejectionCount(@Param("id") Long id);
 }
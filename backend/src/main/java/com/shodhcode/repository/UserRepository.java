@@ -1,12 +1,50 @@
 package com.shodhcode.repository;
 
 import com.shodhcode.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    // Public columns only; listings never load the password or email
+    interface UserRow {
+        Long getId();
+        String getUsername();
+        String getFullName();
+        Long getScore();
+        Integer getProblemsSolved();
+    }
+
+    List<UserRow> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset pages of the global ranking, ordered like idx_users_score
+    @Query("SELECT u.id AS id, u.username AS username, u.fullName AS fullName, u.score AS score, "
+            + "u.problemsSolved AS problemsSolved FROM User u ORDER BY u.score DESC, u.id ASC")
+    List<UserRow> findRanking(Limit limit);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.fullName AS fullName, u.score AS score, "
+            + "u.problemsSolved AS problemsSolved FROM User u "
+            + "WHERE u.score < :score OR (u.score = :score AND u.id > :id) ORDER BY u.score DESC, u.id ASC")
+    List<UserRow> findRankingAfter(@Param("score") long score, @Param("id") long id, Limit limit);
+
+    long countByScoreGreaterThan(Long score);
+
+    // Users ranked at or before the given position in the ranking order
+    @Query("SELECT COUNT(u) FROM User u WHERE u.score > :score OR (u.score = :score AND u.id <= :id)")
+    long countRankedThrough(@Param("score") long score, @Param("id") long id);
+
+    // Increments in the database, so concurrent accepted submissions of one user cannot lose an update.
+    // Runs in the caller's transaction
+    @Modifying
+    @Query("UPDATE User u SET u.score = COALESCE(u.score, 0) + :points, u.problemsSolved = COALESCE(u.problemsSolved, 0) + 1 WHERE u.id = :id")
+    int addSolve(@Param("id") Long id, @Param("points") long points);
 }
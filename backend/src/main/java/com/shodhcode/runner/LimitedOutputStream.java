@@ -0,0 +1,45 @@
+package com.shodhcode.runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Buffers a submission's output up to a byte limit. Past the limit further output is discarded and,
+ * when configured to, the write fails so the submission stops producing output early.
+ */
+public final class LimitedOutputStream extends OutputStream {
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final long limit;
+    private final boolean failOnOverflow;
+    private volatile boolean exceeded;
+
+    public LimitedOutputStream(long limit, boolean failOnOverflow) {
+        this.limit = limit;
+        this.failOnOverflow = failOnOverflow;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        if (!exceeded && buffer.size() + (long) length <= limit) {
+            buffer.write(bytes, offset, length);
+            return;
+        }
+        exceeded = true;
+        if (failOnOverflow) {
+            throw new IllegalStateException("Output limit exceeded");
+        }
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    public synchronized byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,175 @@
+package com.shodhcode.runner;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TimeZone;
+
+/**
+ * Entry point of a warm runner JVM. The judge starts this class in a separate JVM and then sends it
+ * one run request at a time over stdin, reading the result back from stdout.
+ *
+ * <p>Each run loads the submission in a throwaway class loader, redirects System.in/out/err to
+ * in-memory buffers and runs main on its own thread under a wall-clock limit. When a run leaves the
+ * JVM in a state that could leak into the next one (timeout, stray threads, changed global state,
+ * an Error), the result is flagged for recycling and this JVM exits after replying. CPU time is that
+ * of the solution thread; memory is the growth of peak heap usage over the run.
+ *
+ * <p>The classes of this package only depend on the JDK: the judge copies their bytecode out of the
+ * application jar and runs them from a plain directory, so none of them may declare nested or
+ * anonymous classes.
+ */
+public final class SandboxRunner {
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+    private static final long STDERR_LIMIT_BYTES = 64 * 1024;
+
+    private SandboxRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream requests = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        PrintStream originalErr = System.err;
+
+        // Signal readiness once the JVM is up, so the pool only hands out runners that can answer
+        responses.writeUTF("READY");
+        responses.flush();
+
+        while (true) {
+            Map<String, byte[]> classes = new HashMap<>();
+            String mainClass;
+            byte[] input;
+            long timeLimitMillis;
+            long outputLimitBytes;
+            try {
+                int classCount = requests.readInt();
+                for (int i = 0; i < classCount; i++) {
+                    String name = requests.readUTF();
+                    byte[] bytes = new byte[requests.readInt()];
+                    requests.readFully(bytes);
+                    classes.put(name, bytes);
+                }
+                mainClass = requests.readUTF();
+                input = new byte[requests.readInt()];
+                requests.readFully(input);
+                timeLimitMillis = requests.readLong();
+                outputLimitBytes = requests.readLong();
+            } catch (EOFException e) {
+                return;
+            }
+
+            boolean recycle = run(classes, mainClass, input, timeLimitMillis, outputLimitBytes, responses);
+            responses.flush();
+            System.setErr(originalErr);
+            if (recycle) {
+                System.exit(0);
+            }
+        }
+    }
+
+    private static boolean run(Map<String, byte[]> classes, String mainClass, byte[] input, long timeLimitMillis,
+                               long outputLimitBytes, DataOutputStream responses) throws IOException {
+        Properties savedProperties = (Properties) System.getProperties().clone();
+        Locale savedLocale = Locale.getDefault();
+        TimeZone savedTimeZone = TimeZone.getDefault();
+
+        LimitedOutputStream stdout = new LimitedOutputStream(outputLimitBytes, true);
+        LimitedOutputStream stderr = new LimitedOutputStream(STDERR_LIMIT_BYTES, false);
+        PrintStream out = new PrintStream(stdout, false);
+        PrintStream err = new PrintStream(stderr, true);
+        System.setIn(new ByteArrayInputStream(input));
+        System.setOut(out);
+        System.setErr(err);
+
+        ClassLoader loader = new SubmissionClassLoader(classes);
+        int[] exitCode = {0};
+        boolean[] fatal = {false};
+        boolean[] outOfMemory = {false};
+        long[] cpuNanos = {0};
+        ThreadGroup group = new ThreadGroup("submission");
+        Thread solution = new Thread(group, () -> {
+            try {
+                Method main = loader.loadClass(mainClass).getMethod("main", String[].class);
+                main.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                exitCode[0] = 1;
+                fatal[0] = e.getCause() instanceof Error;
+                outOfMemory[0] = e.getCause() instanceof OutOfMemoryError;
+                err.print("Exception in thread \"main\" ");
+                e.getCause().printStackTrace(err);
+            } catch (Throwable t) {
+                exitCode[0] = 1;
+                fatal[0] = t instanceof Error;
+                outOfMemory[0] = t instanceof OutOfMemoryError;
+                t.printStackTrace(err);
+            } finally {
+                cpuNanos[0] = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+            }
+        }, "main");
+        solution.setContextClassLoader(loader);
+
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long baselineHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            baselineHeap += pool.getUsage().getUsed();
+        }
+
+        long start = System.nanoTime();
+        solution.start();
+        try {
+            solution.join(timeLimitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        boolean timedOut = solution.isAlive();
+        out.flush();
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        long cpuMillis = timedOut ? wallMillis : cpuNanos[0] / 1_000_000;
+
+        boolean recycle = timedOut
+                || fatal[0]
+                || group.activeCount() > 0
+                || !savedProperties.equals(System.getProperties())
+                || !savedLocale.equals(Locale.getDefault())
+                || !savedTimeZone.equals(TimeZone.getDefault());
+
+        responses.writeUTF(timedOut ? STATUS_TIMEOUT : STATUS_OK);
+        responses.writeInt(exitCode[0]);
+        responses.writeLong(wallMillis);
+        responses.writeLong(cpuMillis);
+        responses.writeLong(Math.max(0, peakHeap - baselineHeap));
+        responses.writeBoolean(outOfMemory[0]);
+        responses.writeBoolean(recycle);
+        responses.writeBoolean(stdout.isExceeded());
+        writeBytes(responses, stdout.toByteArray());
+        writeBytes(responses, stderr.toByteArray());
+        return recycle;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>(ManagementFactory.getMemoryPoolMXBeans());
+        pools.removeIf(pool -> pool.getType() != MemoryType.HEAP || !pool.isValid());
+        return pools;
+    }
+
+    private static void writeBytes(DataOutputStream responses, byte[] bytes) throws IOException {
+        responses.writeInt(bytes.length);
+        responses.write(bytes);
+    }
+}
@@ -0,0 +1,26 @@
+package com.shodhcode.runner;
+
+import java.util.Map;
+
+/**
+ * Defines a submission's classes from in-memory bytecode. A new loader is created for every run,
+ * so static state in the submission never carries over to the next one.
+ */
+public final class SubmissionClassLoader extends ClassLoader {
+    private final Map<String, byte[]> classes;
+
+    public SubmissionClassLoader(Map<String, byte[]> classes) {
+        // Parent is the platform loader: submissions see the JDK but not the runner itself
+        super(ClassLoader.getPlatformClassLoader());
+        this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = classes.get(name);
+        if (bytes == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
@@ -22,7 +22,7 @@ public class CodeMentorService {
     private String openaiApiKey;
 
     public CodeReviewResponse reviewCode(Long submissionId) {
-        Submission submission = submissionRepository.findById(submissionId)
+        Submission submission = submissionRepository.findWithProblemById(submissionId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
 
         try {
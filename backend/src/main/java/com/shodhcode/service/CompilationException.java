@@ -0,0 +1,10 @@
+package com.shodhcode.service;
+
+/**
+ * Raised by the compile stage when the submission does not compile; the message carries the compiler diagnostics.
+ */
+public class CompilationException extends RuntimeException {
+    public CompilationException(String diagnostics) {
+        super(diagnostics);
+    }
+}
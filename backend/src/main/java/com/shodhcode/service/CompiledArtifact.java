@@ -0,0 +1,124 @@
+package com.shodhcode.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Output of the compile stage. A Java artifact is backed either by in-memory class files or by a
+ * directory of .class files; each form is materialised from the other only when a runner asks for it.
+ * Other languages keep their binary or script in a directory, and the main class names that file.
+ *
+ * <p>An artifact may be shared, e.g. by {@link CompiledArtifactCache}: every holder other than the
+ * creator calls {@link #retain()} and each holder closes it once. The last close removes any
+ * directory the artifact owns.
+ */
+@Slf4j
+public class CompiledArtifact implements AutoCloseable {
+    @Getter
+    private final String mainClass;
+    private Map<String, byte[]> classFiles;
+    private Path directory;
+    private int references = 1;
+
+    private CompiledArtifact(String mainClass, Map<String, byte[]> classFiles, Path directory) {
+        this.mainClass = mainClass;
+        this.classFiles = classFiles;
+        this.directory = directory;
+    }
+
+    public static CompiledArtifact inMemory(String mainClass, Map<String, byte[]> classFiles) {
+        return new CompiledArtifact(mainClass, Map.copyOf(classFiles), null);
+    }
+
+    public static CompiledArtifact inDirectory(String mainClass, Path directory) {
+        return new CompiledArtifact(mainClass, null, directory);
+    }
+
+    public synchronized CompiledArtifact retain() {
+        if (references == 0) {
+            throw new IllegalStateException("Artifact already closed");
+        }
+        references++;
+        return this;
+    }
+
+    /**
+     * Total size of the artifact's files.
+     */
+    public synchronized long sizeBytes() throws IOException {
+        long bytes = 0;
+        if (classFiles != null) {
+            for (byte[] classFile : classFiles.values()) {
+                bytes += classFile.length;
+            }
+            return bytes;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                bytes += Files.size(path);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Class files keyed by binary class name.
+     */
+    public synchronized Map<String, byte[]> getClassFiles() throws IOException {
+        if (classFiles == null) {
+            Map<String, byte[]> loaded = new HashMap<>();
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) paths.filter(p -> p.toString().endsWith(".class"))::iterator) {
+                    String relative = directory.relativize(path).toString();
+                    String className = relative.substring(0, relative.length() - ".class".length())
+                            .replace(path.getFileSystem().getSeparator(), ".");
+                    loaded.put(className, Files.readAllBytes(path));
+                }
+            }
+            classFiles = Map.copyOf(loaded);
+        }
+        return classFiles;
+    }
+
+    /**
+     * A directory usable as a -cp entry for forked runners.
+     */
+    public synchronized Path getDirectory() throws IOException {
+        if (directory == null) {
+            Path created = Files.createTempDirectory("judge_");
+            for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+                Path classFile = created.resolve(entry.getKey().replace('.', '/') + ".class");
+                Files.createDirectories(classFile.getParent());
+                Files.write(classFile, entry.getValue());
+            }
+            directory = created;
+        }
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (references == 0 || --references > 0 || directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .forEach(path -> {
+                        try {
+                            Files.delete(path);
+                        } catch (IOException e) {
+                            log.warn("Failed to delete temp file: " + path);
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Failed to clean up artifact directory: " + directory);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.shodhcode.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the compiled form of recently judged submissions (class files, a native binary, a stored
+ * script), keyed by {@link SourceFingerprint#of} which includes the language, so a resubmission skips
+ * compilation even when the verdict has to be recomputed (e.g. the tests changed). Bounded by the
+ * total size of the artifacts, least recently used first out.
+ */
+@Service
+@Slf4j
+public class CompiledArtifactCache {
+    @Value("${judge.cache.artifacts.max-bytes:33554432}")
+    private long capacityBytes;
+
+    private final LinkedHashMap<String, CachedArtifact> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * The compiled program, from the cache when possible. The caller owns the returned reference and
+     * must close it.
+     *
+     * @throws CompilationException when the source does not compile; failures are not cached
+     */
+    public CompiledArtifact compile(String fingerprint, String code, LanguageRuntime runtime)
+            throws IOException, InterruptedException {
+        synchronized (this) {
+            CachedArtifact cached = entries.get(fingerprint);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.artifact().retain();
+            }
+        }
+        misses.incrementAndGet();
+
+        // Two judges compiling the same source at once both compile; the second result is dropped
+        CompiledArtifact artifact = runtime.compile(code);
+        long sizeBytes = artifact.sizeBytes();
+        synchronized (this) {
+            if (sizeBytes <= capacityBytes && !entries.containsKey(fingerprint)) {
+                entries.put(fingerprint, new CachedArtifact(artifact.retain(), sizeBytes));
+                cachedBytes += sizeBytes;
+                evictOverflow();
+            }
+        }
+        return artifact;
+    }
+
+    public synchronized long getEntries() {
+        return entries.size();
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedArtifact> eldest = entries.values().iterator();
+        while (cachedBytes > capacityBytes && eldest.hasNext()) {
+            CachedArtifact evicted = eldest.next();
+            eldest.remove();
+            cachedBytes -= evicted.sizeBytes();
+            evictions.incrementAndGet();
+            // Judges still running it hold their own reference, so the files stay until they finish
+            evicted.artifact().close();
+        }
+    }
+
+    private record CachedArtifact(CompiledArtifact artifact, long sizeBytes) {
+    }
+}
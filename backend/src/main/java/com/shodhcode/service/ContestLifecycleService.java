@@ -0,0 +1,149 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.Contest;
+import com.shodhcode.entity.Problem;
+import com.shodhcode.repository.ContestRepository;
+import com.shodhcode.repository.ProblemRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves contests from UPCOMING to ONGOING at their start time and to COMPLETED at their end time,
+ * and gets the judge ready ahead of the opening rush. From contest.prewarm-minutes before the start
+ * the contest's test data is loaded into the test case cache, special checkers are compiled and the
+ * warm runner pool is grown to judge.runner.contest-pool-size; the pool goes back to its normal
+ * size contest.ramp-down-minutes after the last running contest ended, once no submissions are left
+ * waiting in the judge queue.
+ * Transitions are conditional updates, so any number of nodes can run this side by side.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContestLifecycleService {
+    private final ContestRepository contestRepository;
+    private final ProblemRepository problemRepository;
+    private final TestCaseCache testCaseCache;
+    private final OutputComparatorFactory outputComparatorFactory;
+    private final WarmRunnerPool warmRunnerPool;
+    private final JudgeScheduler judgeScheduler;
+
+    @Value("${contest.lifecycle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${contest.lifecycle.poll-ms:5000}")
+    private long pollMillis;
+
+    @Value("${contest.prewarm-minutes:10}")
+    private long prewarmMinutes;
+
+    @Value("${contest.ramp-down-minutes:15}")
+    private long rampDownMinutes;
+
+    @Value("${judge.runner.contest-pool-size:0}")
+    private int contestPoolSize;
+
+    @Value("${judge.worker.enabled:true}")
+    private boolean judging;
+
+    private final Set<Long> prewarmed = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "contest-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            boolean contestWindowOpen = false;
+            for (Contest contest : contestRepository.findAll()) {
+                transition(contest, now);
+                if (judging && inWarmWindow(contest, now)) {
+                    contestWindowOpen = true;
+                    if (prewarmed.add(contest.getId())) {
+                        prewarm(contest);
+                    }
+                }
+            }
+            if (judging && contestPoolSize > 0) {
+                if (contestWindowOpen) {
+                    warmRunnerPool.resize(contestPoolSize);
+                } else if (judgeScheduler.getQueueDepth() == 0) {
+                    // A late rush is still being worked off at full size
+                    warmRunnerPool.resize(warmRunnerPool.getBaselinePoolSize());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Contest lifecycle tick failed", e);
+        }
+    }
+
+    private void transition(Contest contest, LocalDateTime now) {
+        Contest.ContestStatus status = contest.getStatus();
+        if (status != Contest.ContestStatus.COMPLETED && !now.isBefore(contest.getEndTime())) {
+            moveTo(contest, status, Contest.ContestStatus.COMPLETED);
+        } else if (status == Contest.ContestStatus.UPCOMING && !now.isBefore(contest.getStartTime())) {
+            moveTo(contest, status, Contest.ContestStatus.ONGOING);
+        }
+    }
+
+    private void moveTo(Contest contest, Contest.ContestStatus from, Contest.ContestStatus to) {
+        if (contestRepository.updateStatus(contest.getId(), from, to) > 0) {
+            log.info("Contest {} is now {}", contest.getId(), to);
+        }
+    }
+
+    /**
+     * From the pre-warm lead time before the start until the ramp-down time after the end.
+     */
+    private boolean inWarmWindow(Contest contest, LocalDateTime now) {
+        return !now.isBefore(contest.getStartTime().minusMinutes(prewarmMinutes))
+                && now.isBefore(contest.getEndTime().plusMinutes(rampDownMinutes));
+    }
+
+    private void prewarm(Contest contest) {
+        List<Problem> problems = problemRepository.findByContestId(contest.getId());
+        int tests = 0;
+        for (Problem problem : problems) {
+            try {
+                tests += testCaseCache.get(problem.getId()).tests().size();
+                // Compiles and keeps the special checker; the other checkers need no preparation
+                outputComparatorFactory.forProblem(problem);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // A broken checker shows up again as the verdict of the first submission
+                log.warn("Could not prepare problem {} of contest {}: {}", problem.getId(), contest.getId(), e.getMessage());
+            }
+        }
+        log.info("Pre-warmed contest {}: {} problems, {} test cases", contest.getId(), problems.size(), tests);
+    }
+}
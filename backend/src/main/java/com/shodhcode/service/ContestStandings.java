@@ -0,0 +1,89 @@
+package com.shodhcode.service;
+
+import com.shodhcode.dto.ContestLeaderboardEntry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Live standings of one contest, kept in rank order and updated one accepted submission at a time.
+ * Each problem counts once per user with the best points earned on it; ties on score are broken by
+ * penalty (minutes from contest start to each first accept), then by user id.
+ */
+public class ContestStandings {
+    private static final Comparator<UserStanding> ORDER = Comparator
+            .comparingInt(UserStanding::totalScore).reversed()
+            .thenComparingLong(UserStanding::penaltyMinutes)
+            .thenComparingLong(UserStanding::userId);
+
+    private final LocalDateTime contestStart;
+    private final Map<Long, UserStanding> standings = new HashMap<>();
+    private final Map<Long, Map<Long, SolvedProblem>> solvedProblems = new HashMap<>();
+    private final RankedTreap<UserStanding> ranking = new RankedTreap<>(ORDER);
+
+    public ContestStandings(LocalDateTime contestStart) {
+        this.contestStart = contestStart;
+    }
+
+    /**
+     * Applies an accepted submission. Re-applying the same submission has no effect, so a submission
+     * seen both by the initial load and by a live update is counted once.
+     */
+    public synchronized void applyAccepted(Long userId, String username, Long problemId, int points,
+                                           LocalDateTime acceptedAt) {
+        long minute = Math.max(0, Duration.between(contestStart, acceptedAt).toMinutes());
+        Map<Long, SolvedProblem> solved = solvedProblems.computeIfAbsent(userId, id -> new HashMap<>());
+        solved.merge(problemId, new SolvedProblem(points, minute), (previous, next) ->
+                new SolvedProblem(Math.max(previous.points(), next.points()), Math.min(previous.minute(), next.minute())));
+
+        int totalScore = 0;
+        long penalty = 0;
+        for (SolvedProblem problem : solved.values()) {
+            totalScore += problem.points();
+            penalty += problem.minute();
+        }
+
+        UserStanding previous = standings.get(userId);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        UserStanding updated = new UserStanding(userId, username, totalScore, solved.size(), penalty);
+        standings.put(userId, updated);
+        ranking.add(updated);
+    }
+
+    public synchronized int size() {
+        return ranking.size();
+    }
+
+    public synchronized List<ContestLeaderboardEntry> page(int offset, int limit) {
+        List<ContestLeaderboardEntry> entries = new ArrayList<>();
+        int rank = offset + 1;
+        for (UserStanding standing : ranking.range(offset, limit)) {
+            entries.add(toEntry(standing, rank++));
+        }
+        return entries;
+    }
+
+    public synchronized Optional<ContestLeaderboardEntry> entryFor(Long userId) {
+        UserStanding standing = standings.get(userId);
+        return standing == null ? Optional.empty() : Optional.of(toEntry(standing, ranking.rank(standing) + 1));
+    }
+
+    private ContestLeaderboardEntry toEntry(UserStanding standing, int rank) {
+        return ContestLeaderboardEntry.builder()
+                .rank(rank)
+                .userId(standing.userId())
+                .username(standing.username())
+                .totalScore(standing.totalScore())
+                .problemsSolved(standing.problemsSolved())
+                .penaltyMinutes(standing.penaltyMinutes())
+                .build();
+    }
+
+    private record UserStanding(long userId, String username, int totalScore, int problemsSolved, long penaltyMinutes) {
+    }
+
+    private record SolvedProblem(int points, long minute) {
+    }
+}
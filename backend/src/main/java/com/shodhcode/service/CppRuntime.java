@@ -0,0 +1,99 @@
+package com.shodhcode.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * C++ submissions: compiled once into a native binary, which every test then runs directly. The
+ * compile and run commands are templates in which {source} and {binary} stand for the file names.
+ */
+@Component
+@RequiredArgsConstructor
+public class CppRuntime implements LanguageRuntime {
+    private static final String SOURCE_FILE = "solution.cpp";
+    private static final String BINARY_FILE = "solution";
+    private static final long COMPILE_TIMEOUT_SECONDS = 30;
+
+    private final ProcessRunner processRunner;
+
+    @Value("${judge.lang.cpp.compile:g++ -O2 -std=gnu++17 -pipe -o {binary} {source}}")
+    private String compileTemplate;
+
+    @Value("${judge.lang.cpp.run:./{binary}}")
+    private String runTemplate;
+
+    @Value("${judge.lang.cpp.time-multiplier:1.0}")
+    private double timeMultiplier;
+
+    @Override
+    public String getLanguage() {
+        return "CPP";
+    }
+
+    @Override
+    public double getTimeMultiplier() {
+        return timeMultiplier;
+    }
+
+    @Override
+    public CompiledArtifact compile(String code) throws IOException, InterruptedException {
+        Path tempDir = Files.createTempDirectory("judge_");
+        CompiledArtifact artifact = CompiledArtifact.inDirectory(BINARY_FILE, tempDir);
+        try {
+            Files.write(tempDir.resolve(SOURCE_FILE), code.getBytes(StandardCharsets.UTF_8));
+            ProcessBuilder builder = new ProcessBuilder(expand(compileTemplate));
+            builder.directory(tempDir.toFile());
+            builder.redirectErrorStream(true);
+            Process compileProcess = builder.start();
+
+            // Drain diagnostics while the compiler runs so a long error list cannot block it
+            CompletableFuture<byte[]> diagnostics = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return compileProcess.getInputStream().readAllBytes();
+                } catch (IOException e) {
+                    return new byte[0];
+                }
+            });
+
+            if (!compileProcess.waitFor(COMPILE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                compileProcess.destroyForcibly();
+                throw new CompilationException("Compilation timed out");
+            }
+            if (compileProcess.exitValue() != 0) {
+                throw new CompilationException(new String(diagnostics.join(), StandardCharsets.UTF_8));
+            }
+            Files.delete(tempDir.resolve(SOURCE_FILE));
+            return artifact;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            artifact.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public RunOutcome run(CompiledArtifact artifact, byte[] input, OutputSink stdout, ResourceLimits limits,
+                          ExecutionControl control) throws Exception {
+        Path directory = artifact.getDirectory();
+        ProcessRunner.ProcessResult result = processRunner.run(expand(runTemplate), directory, input, stdout,
+                limits.timeMillis(), limits.memoryMb() * 1024, control);
+        return new RunOutcome(result.exitCode(), result.stderr(), result.timedOut(), result.memoryLimitExceeded(),
+                result.cpuMillis(), result.wallMillis(), result.peakRssKb());
+    }
+
+    private static List<String> expand(String template) {
+        List<String> command = new ArrayList<>();
+        for (String part : template.trim().split("\\s+")) {
+            command.add(part.replace("{source}", SOURCE_FILE).replace("{binary}", BINARY_FILE));
+        }
+        return command;
+    }
+}
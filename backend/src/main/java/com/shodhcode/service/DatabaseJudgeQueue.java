@@ -0,0 +1,186 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.JudgeJob;
+import com.shodhcode.repository.JudgeJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job queue in the judge_jobs table, shared by every node pointed at the same database. A worker
+ * claims the oldest claimable row, or in round-robin mode the oldest of the lowest user turn, with
+ * SELECT ... FOR UPDATE SKIP LOCKED and takes a lease on it;
+ * a heartbeat renews the leases this node holds. If a worker dies its leases lapse and the jobs are
+ * claimed again by another worker.
+ */
+@Component
+@Slf4j
+public class DatabaseJudgeQueue implements JudgeQueue {
+    private final JudgeJobRepository judgeJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    @Value("${judge.queue.capacity:500}")
+    private int capacity;
+
+    @Value("${judge.queue.lease-ms:30000}")
+    private long leaseMillis;
+
+    @Value("${judge.queue.poll-ms:200}")
+    private long pollMillis;
+
+    @Value("${judge.queue.fairness:round-robin}")
+    private String fairness;
+
+    private ScheduledExecutorService heartbeat;
+
+    public DatabaseJudgeQueue(JudgeJobRepository judgeJobRepository, PlatformTransactionManager transactionManager) {
+        this.judgeJobRepository = judgeJobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String getName() {
+        return "database";
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+
+    @Override
+    public void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "judge-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, leaseMillis / 3);
+        heartbeat.scheduleWithFixedDelay(this::renewLeases, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Database judge queue on node {}, lease {} ms", nodeId, leaseMillis);
+    }
+
+    @Override
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+    }
+
+    /**
+     * Enqueues in one transaction. Offers for the same user are serialised on the user's row, so each
+     * gets its own turn. Capacity is a soft bound: offers for different users do not lock each other,
+     * so nodes enqueueing at the same moment can each pass the check and overshoot it by at most the
+     * number of offers in flight.
+     *
+     * <p>A user's turns only grow while they have jobs in the table, so their own jobs are claimed in
+     * the order they were submitted. A user with nothing queued joins the round being handed out.
+     */
+    @Override
+    public boolean offer(Long submissionId, Long userId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            int turn = 0;
+            if (isRoundRobin() && userId != null) {
+                judgeJobRepository.lockUser(userId);
+                int currentRound = judgeJobRepository.findMinTurnByStatus(JudgeJob.JobStatus.QUEUED).orElse(0);
+                turn = judgeJobRepository.findMaxTurnByUserId(userId)
+                        .map(last -> Math.max(last + 1, currentRound))
+                        .orElse(currentRound);
+            }
+            if (!hasCapacity()) {
+                return false;
+            }
+            judgeJobRepository.save(JudgeJob.builder()
+                    .submissionId(submissionId)
+                    .userId(userId)
+                    .userTurn(turn)
+                    .status(JudgeJob.JobStatus.QUEUED)
+                    .attempts(0)
+                    .enqueuedAt(LocalDateTime.now())
+                    .build());
+            return true;
+        }));
+    }
+
+    private boolean isRoundRobin() {
+        return "round-robin".equals(fairness);
+    }
+
+    @Override
+    public boolean hasCapacity() {
+        return depth() < capacity;
+    }
+
+    @Override
+    public int depth() {
+        return (int) judgeJobRepository.countByStatus(JudgeJob.JobStatus.QUEUED);
+    }
+
+    @Override
+    public Claim take() throws InterruptedException {
+        while (true) {
+            Claim claim = claimNext();
+            if (claim != null) {
+                return claim;
+            }
+            Thread.sleep(pollMillis);
+        }
+    }
+
+    @Override
+    public void complete(Claim claim) {
+        if (judgeJobRepository.deleteLeased(claim.jobId(), nodeId) == 0) {
+            log.warn("Lease on job {} for submission {} was lost before it completed", claim.jobId(),
+                    claim.submissionId());
+        }
+    }
+
+    /**
+     * Hands the job back as queued with its turn and attempt count kept, so it is claimed again
+     * before the user's later jobs.
+     */
+    @Override
+    public void retry(Claim claim) {
+        if (judgeJobRepository.releaseLeased(claim.jobId(), nodeId, JudgeJob.JobStatus.QUEUED) == 0) {
+            log.warn("Lease on job {} for submission {} was lost before it could be retried", claim.jobId(),
+                    claim.submissionId());
+        }
+    }
+
+    private Claim claimNext() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return (isRoundRobin() ? judgeJobRepository.lockNextClaimableByTurn(now) : judgeJobRepository.lockNextClaimable(now)).map(job -> {
+                if (job.getStatus() == JudgeJob.JobStatus.LEASED) {
+                    log.warn("Lease of {} on job {} lapsed, claiming it again", job.getLeaseOwner(), job.getId());
+                }
+                job.setStatus(JudgeJob.JobStatus.LEASED);
+                job.setLeaseOwner(nodeId);
+                job.setLeaseExpiresAt(now.plus(Duration.ofMillis(leaseMillis)));
+                job.setAttempts(job.getAttempts() + 1);
+                return new Claim(job.getId(), job.getSubmissionId(),
+                        Duration.between(job.getEnqueuedAt(), now).toMillis(), job.getAttempts());
+            }).orElse(null);
+        });
+    }
+
+    private void renewLeases() {
+        try {
+            judgeJobRepository.renewLeases(nodeId, LocalDateTime.now().plus(Duration.ofMillis(leaseMillis)),
+                    JudgeJob.JobStatus.LEASED);
+        } catch (Exception e) {
+            log.error("Failed to renew judge job leases", e);
+        }
+    }
+}
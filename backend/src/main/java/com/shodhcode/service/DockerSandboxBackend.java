@@ -0,0 +1,217 @@
+package com.shodhcode.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs submissions inside containers of the judge image. One container per slot is created at
+ * startup (no network, capped memory and process count, pinned to the slot's CPU) and kept idle;
+ * each run is a docker exec into it, and afterwards every process in the container except its
+ * init is killed so the next run starts clean. Nothing of the host is mounted: before a run the
+ * run's own directory is copied into the container under /sandbox, once per slot and directory,
+ * and the submission runs as an unprivileged user that can read that copy but not change it.
+ *
+ * <p>The judge can only sample the docker client, not the processes inside the container, so a
+ * run's CPU time and memory are not measured and never recorded. The run's memory limit is set
+ * on the container instead, with judge.sandbox.docker.memory-mb as the ceiling, and a run the
+ * kernel killed for it is recognised by the container's OOM kill count.
+ */
+@Component
+@Slf4j
+public class DockerSandboxBackend implements SandboxBackend {
+    private static final String CONTAINER_PREFIX = "shodh-judge-";
+    private static final String SANDBOX_ROOT = "/sandbox/";
+    // nobody:nogroup in the Debian-based judge image
+    private static final String RUN_AS = "65534:65534";
+    // Everything the unprivileged user can write to, wiped between runs so nothing carries over to the next one
+    // docker refuses anything lower
+    private static final long MIN_MEMORY_MB = 6;
+    // cgroup v2 inside the container's own cgroup namespace, or the v1 memory controller
+    private static final String READ_OOM_KILLS =
+            "cat /sys/fs/cgroup/memory.events 2>/dev/null || cat /sys/fs/cgroup/memory/memory.oom_control";
+    private static final Pattern OOM_KILL = Pattern.compile("(?m)^oom_kill (\\d+)$");
+    private static final String WIPE_WRITABLE = "rm -rf /tmp/* /tmp/.[!.]* /var/tmp/* /dev/shm/* 2>/dev/null; true";
+
+    @Value("${judge.sandbox.docker.command:docker}")
+    private String docker;
+
+    @Value("${judge.sandbox.docker.image:shodh-judge:latest}")
+    private String image;
+
+    @Value("${judge.sandbox.docker.memory-mb:1024}")
+    private int memoryMb;
+
+    @Value("${judge.sandbox.docker.pids-limit:128}")
+    private int pidsLimit;
+
+    // Per slot index: the host directory whose copy the container holds, its memory limit, and how
+    // many processes the kernel has killed in it for exceeding that limit
+    private final Map<Integer, Path> copied = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> memoryLimitsMb = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> oomKills = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "docker";
+    }
+
+    @Override
+    public boolean isIsolated() {
+        return true;
+    }
+
+    @Override
+    public boolean isMeasured() {
+        return false;
+    }
+
+    @Override
+    public void start(List<SandboxSlot> slots) throws IOException, InterruptedException {
+        copied.clear();
+        memoryLimitsMb.clear();
+        oomKills.clear();
+        for (SandboxSlot slot : slots) {
+            String name = containerName(slot);
+            execute(List.of(docker, "rm", "-f", name));
+            List<String> create = new ArrayList<>(List.of(docker, "run", "-d", "--name", name,
+                    "--network", "none", "--memory", memoryMb + "m", "--memory-swap", memoryMb + "m",
+                    "--pids-limit", Integer.toString(pidsLimit),
+                    "--entrypoint", "sleep"));
+            if (slot.cpu() != null) {
+                create.addAll(List.of("--cpuset-cpus", slot.cpu().toString()));
+            }
+            create.addAll(List.of(image, "infinity"));
+            if (execute(create) != 0) {
+                throw new IllegalStateException("Could not start sandbox container " + name + " from " + image);
+            }
+        }
+        log.info("Started {} sandbox containers from {}", slots.size(), image);
+    }
+
+    /**
+     * Replaces the copy in the slot's container with the run's directory and sets the container's
+     * memory limit to the run's, unless they are already in place. Tests of one submission usually
+     * land on the same slot, so most runs change nothing.
+     */
+    @Override
+    public void prepare(Path workingDirectory, long memoryLimitKb, SandboxSlot slot)
+            throws IOException, InterruptedException {
+        String name = containerName(slot);
+        long limitMb = Math.min(memoryMb, Math.max(MIN_MEMORY_MB, (memoryLimitKb + 1023) / 1024));
+        if (!Long.valueOf(limitMb).equals(memoryLimitsMb.get(slot.index()))) {
+            memoryLimitsMb.remove(slot.index());
+            if (execute(List.of(docker, "update", "--memory", limitMb + "m", "--memory-swap", limitMb + "m", name)) != 0) {
+                throw new IOException("Could not set the memory limit of sandbox container " + name);
+            }
+            memoryLimitsMb.put(slot.index(), limitMb);
+        }
+
+        Path directory = workingDirectory.toAbsolutePath();
+        if (directory.equals(copied.get(slot.index()))) {
+            return;
+        }
+        copied.remove(slot.index());
+        String target = inContainer(directory);
+        // docker cp creates the copy owned by root; the submission only gets to read it
+        if (execute(List.of(docker, "exec", name, "sh", "-c", "rm -rf " + SANDBOX_ROOT + " && mkdir -p " + SANDBOX_ROOT)) != 0
+                || execute(List.of(docker, "cp", directory.toString(), name + ":" + SANDBOX_ROOT)) != 0
+                || execute(List.of(docker, "exec", name, "chmod", "-R", "a+rX,go-w", target)) != 0) {
+            throw new IOException("Could not copy " + directory + " into sandbox container " + name);
+        }
+        copied.put(slot.index(), directory);
+    }
+
+    @Override
+    public List<String> wrap(List<String> command, Path workingDirectory, SandboxSlot slot) {
+        String hostDirectory = workingDirectory.toAbsolutePath().toString();
+        String target = inContainer(workingDirectory.toAbsolutePath());
+        List<String> wrapped = new ArrayList<>(List.of(docker, "exec", "-i", "-u", RUN_AS, "-w", target,
+                containerName(slot)));
+        for (String part : command) {
+            wrapped.add(part.replace(hostDirectory, target));
+        }
+        return wrapped;
+    }
+
+    /**
+     * Compares the container's OOM kill count with the one seen after its previous run.
+     */
+    @Override
+    public boolean wasOutOfMemory(SandboxSlot slot) throws IOException, InterruptedException {
+        String events = read(List.of(docker, "exec", containerName(slot), "sh", "-c", READ_OOM_KILLS));
+        Matcher count = OOM_KILL.matcher(events);
+        if (!count.find()) {
+            log.warn("No OOM kill count in sandbox container {}", containerName(slot));
+            return false;
+        }
+        long kills = Long.parseLong(count.group(1));
+        Long previous = oomKills.put(slot.index(), kills);
+        return kills > (previous != null ? previous : 0);
+    }
+
+    @Override
+    public void reset(SandboxSlot slot) {
+        // Killing the docker client does not stop what it started inside, so clear the container out
+        try {
+            execute(List.of(docker, "exec", containerName(slot), "sh", "-c", "kill -9 -1; " + WIPE_WRITABLE));
+        } catch (IOException e) {
+            log.warn("Failed to reset sandbox container {}", containerName(slot), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop(List<SandboxSlot> slots) {
+        for (SandboxSlot slot : slots) {
+            try {
+                execute(List.of(docker, "rm", "-f", containerName(slot)));
+            } catch (IOException e) {
+                log.warn("Failed to remove sandbox container {}", containerName(slot), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static String inContainer(Path directory) {
+        return SANDBOX_ROOT + directory.getFileName();
+    }
+
+    private static String containerName(SandboxSlot slot) {
+        return CONTAINER_PREFIX + slot.index();
+    }
+
+    private String read(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        byte[] output = process.getInputStream().readAllBytes();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        return new String(output, StandardCharsets.UTF_8);
+    }
+
+    private int execute(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            return -1;
+        }
+        return process.exitValue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.shodhcode.service;
+
+/**
+ * Compares output byte for byte, except that CRLF and LF line endings are interchangeable and
+ * trailing line breaks at the end of either side are ignored.
+ */
+public class ExactComparator implements OutputComparator {
+    private static final int END = Integer.MIN_VALUE;
+
+    private final byte[] expected;
+    private int expectedPos;
+    private int pendingNewlines;
+    private boolean pendingCr;
+    private boolean mismatch;
+
+    public ExactComparator(byte[] expected) {
+        this.expected = expected;
+    }
+
+    @Override
+    public void feed(byte[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length && !mismatch; i++) {
+            byte b = buffer[i];
+            if (pendingCr) {
+                pendingCr = false;
+                if (b != '\n') {
+                    // Not part of a CRLF pair, so the CR is ordinary content
+                    emit((byte) '\r');
+                }
+            }
+            if (b == '\r') {
+                pendingCr = true;
+            } else if (b == '\n') {
+                pendingNewlines++;
+            } else {
+                emit(b);
+            }
+        }
+    }
+
+    @Override
+    public boolean matches() {
+        if (mismatch) {
+            return false;
+        }
+        for (int pos = expectedPos; pos < expected.length; pos++) {
+            if (expected[pos] != '\n' && expected[pos] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void emit(byte b) {
+        // Line breaks are only compared once more content follows them, so trailing ones never count
+        while (pendingNewlines > 0 && !mismatch) {
+            pendingNewlines--;
+            mismatch = nextExpected() != '\n';
+        }
+        if (!mismatch) {
+            mismatch = nextExpected() != b;
+        }
+    }
+
+    private int nextExpected() {
+        if (expectedPos >= expected.length) {
+            return END;
+        }
+        byte b = expected[expectedPos++];
+        if (b == '\r' && expectedPos < expected.length && expected[expectedPos] == '\n') {
+            expectedPos++;
+            return '\n';
+        }
+        return b;
+    }
+}
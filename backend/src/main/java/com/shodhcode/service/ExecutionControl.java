@@ -0,0 +1,47 @@
+package com.shodhcode.service;
+
+/**
+ * Lets the judge abort a test run that is in flight on another thread, e.g. once an earlier test
+ * has already decided the verdict. The run registers how to abort itself (kill its process);
+ * cancelling before registration aborts the run as soon as it registers. The run closes its
+ * registration when it ends, so a later cancel cannot touch a process or runner that has since
+ * been reused.
+ */
+public class ExecutionControl {
+    private boolean cancelled;
+    private Runnable abortAction;
+
+    public synchronized Registration onCancel(Runnable action) {
+        if (cancelled) {
+            action.run();
+            return () -> {
+            };
+        }
+        abortAction = action;
+        return () -> unregister(action);
+    }
+
+    private synchronized void unregister(Runnable action) {
+        if (abortAction == action) {
+            abortAction = null;
+        }
+    }
+
+    public synchronized void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            if (abortAction != null) {
+                abortAction.run();
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
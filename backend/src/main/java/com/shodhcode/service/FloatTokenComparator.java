@@ -0,0 +1,162 @@
+package com.shodhcode.service;
+
+import java.util.Arrays;
+
+/**
+ * Token comparison where numeric tokens match if they are within an absolute or a relative
+ * epsilon of the expected value. Other tokens must match exactly. Numbers are parsed straight
+ * from the byte buffers; only the token currently being read is buffered.
+ */
+public class FloatTokenComparator implements OutputComparator {
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+    private static final int MAX_EXPONENT = 10_000;
+
+    private final byte[] expected;
+    private final double absoluteEpsilon;
+    private final double relativeEpsilon;
+    private int expectedPos;
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private boolean mismatch;
+
+    public FloatTokenComparator(byte[] expected, double absoluteEpsilon, double relativeEpsilon) {
+        this.expected = expected;
+        this.absoluteEpsilon = absoluteEpsilon;
+        this.relativeEpsilon = relativeEpsilon;
+    }
+
+    @Override
+    public void feed(byte[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length && !mismatch; i++) {
+            byte b = buffer[i];
+            if (isWhitespace(b)) {
+                if (tokenLength > 0) {
+                    compareToken();
+                }
+            } else {
+                if (tokenLength == token.length) {
+                    token = Arrays.copyOf(token, token.length * 2);
+                }
+                token[tokenLength++] = b;
+            }
+        }
+    }
+
+    @Override
+    public boolean matches() {
+        if (!mismatch && tokenLength > 0) {
+            compareToken();
+        }
+        if (mismatch) {
+            return false;
+        }
+        skipExpectedWhitespace();
+        return expectedPos >= expected.length;
+    }
+
+    private void compareToken() {
+        skipExpectedWhitespace();
+        int start = expectedPos;
+        while (expectedPos < expected.length && !isWhitespace(expected[expectedPos])) {
+            expectedPos++;
+        }
+        double actualValue = parseNumber(token, 0, tokenLength);
+        double expectedValue = parseNumber(expected, start, expectedPos);
+        if (Double.isNaN(actualValue) || Double.isNaN(expectedValue)) {
+            mismatch = !Arrays.equals(token, 0, tokenLength, expected, start, expectedPos);
+        } else if (actualValue != expectedValue) {
+            double difference = Math.abs(actualValue - expectedValue);
+            mismatch = !(difference <= absoluteEpsilon || difference <= relativeEpsilon * Math.abs(expectedValue));
+        }
+        tokenLength = 0;
+    }
+
+    private void skipExpectedWhitespace() {
+        while (expectedPos < expected.length && isWhitespace(expected[expectedPos])) {
+            expectedPos++;
+        }
+    }
+
+    /**
+     * Parses a decimal number such as -12, 3.25 or 1.5e-7, or returns NaN when the bytes are not one.
+     * Digits past the 18th significant one only shift the exponent, which is far below any epsilon.
+     */
+    static double parseNumber(byte[] bytes, int from, int to) {
+        int pos = from;
+        boolean negative = false;
+        if (pos < to && (bytes[pos] == '-' || bytes[pos] == '+')) {
+            negative = bytes[pos] == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean seenPoint = false;
+        for (; pos < to; pos++) {
+            byte b = bytes[pos];
+            if (b >= '0' && b <= '9') {
+                digits++;
+                if (significantDigits < MAX_SIGNIFICANT_DIGITS) {
+                    if (mantissa != 0 || b != '0') {
+                        significantDigits++;
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (seenPoint) {
+                        exponent--;
+                    }
+                } else if (!seenPoint) {
+                    exponent++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (pos < to && (bytes[pos] == 'e' || bytes[pos] == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < to && (bytes[pos] == '-' || bytes[pos] == '+')) {
+                negativeExponent = bytes[pos] == '-';
+                pos++;
+            }
+            int exponentDigits = 0;
+            int explicitExponent = 0;
+            for (; pos < to && bytes[pos] >= '0' && bytes[pos] <= '9'; pos++) {
+                explicitExponent = Math.min(MAX_EXPONENT, explicitExponent * 10 + (bytes[pos] - '0'));
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (pos != to) {
+            return Double.NaN;
+        }
+        double value = scale(mantissa, exponent);
+        return negative ? -value : value;
+    }
+
+    private static double scale(long mantissa, int exponent) {
+        double value = mantissa;
+        // Scale in steps so 10^exponent itself never overflows or underflows before the product does
+        while (exponent > 300 && value != 0 && !Double.isInfinite(value)) {
+            value *= 1e300;
+            exponent -= 300;
+        }
+        while (exponent < -300 && value != 0) {
+            value /= 1e300;
+            exponent += 300;
+        }
+        return exponent >= 0 ? value * Math.pow(10, exponent) : value / Math.pow(10, -exponent);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+}
@@ -0,0 +1,137 @@
+package com.shodhcode.service;
+
+import com.shodhcode.dto.UserRankingEntry;
+import com.shodhcode.dto.UserRankingPage;
+import com.shodhcode.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The all-time ranking of users by score (ties broken by id). The top of the ranking is kept as a
+ * snapshot that is reloaded after scores change, at most once per refresh interval; pages past it
+ * are read with keyset queries on the score index, so no request scans or sorts the users table.
+ */
+@Service
+@RequiredArgsConstructor
+public class GlobalRankingService {
+    private final UserRepository userRepository;
+
+    @Value("${leaderboard.global.top-size:100}")
+    private int topSize;
+
+    @Value("${leaderboard.global.refresh-ms:1000}")
+    private long refreshMillis;
+
+    private volatile List<UserRankingEntry> top = List.of();
+    private volatile boolean stale = true;
+    private long refreshedAt;
+
+    /**
+     * Called when a score may have changed or a user was added.
+     */
+    public void markChanged() {
+        stale = true;
+    }
+
+    /**
+     * Up to {@code limit} entries following {@code after}, or from the top when it is null.
+     */
+    public UserRankingPage page(Cursor after, int limit) {
+        List<UserRankingEntry> snapshot = topSnapshot();
+        // A snapshot shorter than topSize holds every user, so any page within it is complete
+        boolean complete = snapshot.size() < topSize;
+        int start = after == null ? 0 : positionAfter(snapshot, after);
+        List<UserRankingEntry> entries;
+        if (start >= 0 && (complete || start + limit <= snapshot.size())) {
+            entries = snapshot.subList(start, Math.min(snapshot.size(), start + limit));
+        } else {
+            entries = load(after, limit);
+        }
+        UserRankingEntry last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        return UserRankingPage.builder()
+                .entries(entries)
+                .nextCursor(entries.size() == limit && last != null ? new Cursor(last.getScore(), last.getUserId()).toString() : null)
+                .build();
+    }
+
+    private List<UserRankingEntry> topSnapshot() {
+        if (stale) {
+            synchronized (this) {
+                if (stale && System.nanoTime() - refreshedAt >= TimeUnit.MILLISECONDS.toNanos(refreshMillis)) {
+                    // Cleared before loading, so a change that lands during the load triggers another refresh
+                    stale = false;
+                    top = List.copyOf(load(null, topSize));
+                    refreshedAt = System.nanoTime();
+                }
+            }
+        }
+        return top;
+    }
+
+    private static int positionAfter(List<UserRankingEntry> snapshot, Cursor after) {
+        for (int i = 0; i < snapshot.size(); i++) {
+            UserRankingEntry entry = snapshot.get(i);
+            if (entry.getUserId() == after.id() && entry.getScore() == after.score()) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Loads a page from the database. Users with equal scores share a rank, the one of the first of
+     * them, so ranks need the number of users ahead of the page.
+     */
+    private List<UserRankingEntry> load(Cursor after, int limit) {
+        List<UserRepository.UserRow> rows = after == null
+                ? userRepository.findRanking(Limit.of(limit))
+                : userRepository.findRankingAfter(after.score(), after.id(), Limit.of(limit));
+        long ahead = after == null ? 0 : userRepository.countRankedThrough(after.score(), after.id());
+
+        List<UserRankingEntry> entries = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserRepository.UserRow row = rows.get(i);
+            long rank;
+            if (i > 0 && row.getScore().equals(rows.get(i - 1).getScore())) {
+                rank = entries.get(i - 1).getRank();
+            } else if (i == 0 && after != null && row.getScore() == after.score()) {
+                // Tied with the end of the previous page
+                rank = userRepository.countByScoreGreaterThan(row.getScore()) + 1;
+            } else {
+                rank = ahead + i + 1;
+            }
+            entries.add(UserRankingEntry.builder()
+                    .rank((int) rank)
+                    .userId(row.getId())
+                    .username(row.getUsername())
+                    .fullName(row.getFullName())
+                    .score(row.getScore())
+                    .problemsSolved(row.getProblemsSolved())
+                    .build());
+        }
+        return entries;
+    }
+
+    /**
+     * Position in the ranking, written as "score,id".
+     */
+    public record Cursor(long score, long id) {
+        public static Cursor parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected after=score,id");
+            }
+            return new Cursor(Long.parseLong(parts[0].trim()), Long.parseLong(parts[1].trim()));
+        }
+
+        @Override
+        public String toString() {
+            return score + "," + id;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.shodhcode.service;
+
+import org.springframework.stereotype.Component;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs submissions directly on the host, pinned to the slot's CPU when pinning is enabled.
+ */
+@Component
+public class HostSandboxBackend implements SandboxBackend {
+    @Override
+    public String getName() {
+        return "host";
+    }
+
+    @Override
+    public boolean isIsolated() {
+        return false;
+    }
+
+    @Override
+    public List<String> wrap(List<String> command, Path workingDirectory, SandboxSlot slot) {
+        return pinned(command, slot);
+    }
+
+    static List<String> pinned(List<String> command, SandboxSlot slot) {
+        if (slot.cpu() == null) {
+            return command;
+        }
+        List<String> wrapped = new ArrayList<>(List.of("taskset", "-c", slot.cpu().toString()));
+        wrapped.addAll(command);
+        return wrapped;
+    }
+}
@@ -0,0 +1,83 @@
+package com.shodhcode.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Java submissions: compiled in-process by {@link JavaSourceCompiler} and run in a warm runner JVM
+ * when one can serve the memory limit, otherwise in a fresh JVM. Warm runners are not used when
+ * submissions are sandboxed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JavaRuntime implements LanguageRuntime {
+    private final JavaSourceCompiler javaSourceCompiler;
+    private final WarmRunnerPool warmRunnerPool;
+    private final ProcessRunner processRunner;
+
+    @Value("${judge.output.limit-bytes:16777216}")
+    private long outputLimitBytes;
+
+    @Value("${judge.memory.jvm-overhead-mb:64}")
+    private long jvmOverheadMb;
+
+    @Value("${judge.lang.java.time-multiplier:1.0}")
+    private double timeMultiplier;
+
+    @Override
+    public String getLanguage() {
+        return "JAVA";
+    }
+
+    @Override
+    public double getTimeMultiplier() {
+        return timeMultiplier;
+    }
+
+    @Override
+    public CompiledArtifact compile(String code) throws IOException, InterruptedException {
+        return javaSourceCompiler.compile(code);
+    }
+
+    @Override
+    public RunOutcome run(CompiledArtifact artifact, byte[] input, OutputSink stdout, ResourceLimits limits,
+                          ExecutionControl control) throws Exception {
+        if (warmRunnerPool.canServe(limits.memoryMb())) {
+            try {
+                WarmRunnerPool.RunResult result = warmRunnerPool.run(artifact, input, limits.timeMillis(),
+                        outputLimitBytes, control);
+                if (result.outputLimitExceeded()) {
+                    stdout.markLimitExceeded();
+                } else {
+                    stdout.write(result.stdout(), 0, result.stdout().length);
+                }
+                long memoryKb = result.peakMemoryBytes() / 1024;
+                return new RunOutcome(result.exitCode(), new String(result.stderr(), StandardCharsets.UTF_8),
+                        result.timedOut(), result.outOfMemory() || memoryKb > limits.memoryMb() * 1024,
+                        result.cpuMillis(), result.wallMillis(), memoryKb);
+            } catch (WarmRunnerPool.RunnerUnavailableException e) {
+                if (control.isCancelled()) {
+                    throw new CancellationException("Test run cancelled");
+                }
+                log.debug("{}, running in a fresh JVM", e.getMessage());
+            }
+        }
+
+        // The heap is capped at the problem's limit; the RSS cap leaves room for the JVM's own footprint
+        Path classDirectory = artifact.getDirectory();
+        ProcessRunner.ProcessResult result = processRunner.run(
+                List.of("java", "-Xmx" + limits.memoryMb() + "m", "-cp", classDirectory.toString(), artifact.getMainClass()),
+                classDirectory, input, stdout, limits.timeMillis(), (limits.memoryMb() + jvmOverheadMb) * 1024, control);
+        return new RunOutcome(result.exitCode(), result.stderr(), result.timedOut(),
+                result.memoryLimitExceeded() || result.stderr().contains("java.lang.OutOfMemoryError"),
+                result.cpuMillis(), result.wallMillis(), result.peakRssKb());
+    }
+}
@@ -0,0 +1,290 @@
+package com.shodhcode.service;
+
+import com.shodhcode.dto.CompilerStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import javax.tools.*;
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles Java submissions. The default in-process mode drives javax.tools.JavaCompiler against
+ * in-memory sources and outputs, reusing a pool of warm file managers whose platform classpath state
+ * is already loaded. In-process compilations run on a compiler thread and are given up on after 30 s,
+ * like C++ compiles; the fork mode shells out to javac and is kept as a fallback for hosts without a JDK.
+ */
+@Service
+@Slf4j
+public class JavaSourceCompiler {
+    private static final String MAIN_CLASS = "Solution";
+    private static final List<String> OPTIONS = List.of("-proc:none", "-encoding", "UTF-8");
+    private static final long COMPILE_TIMEOUT_SECONDS = 30;
+
+    @Value("${judge.compiler.mode:in-process}")
+    private String mode;
+
+    @Value("${judge.compiler.pool-size:0}")
+    private int configuredPoolSize;
+
+    private JavaCompiler compiler;
+    private final BlockingQueue<StandardJavaFileManager> fileManagers = new LinkedBlockingQueue<>();
+    private final LatencyRecorder inProcessLatency = new LatencyRecorder(1024);
+    private final LatencyRecorder forkLatency = new LatencyRecorder(1024);
+    private final AtomicInteger compilerThreadIndex = new AtomicInteger();
+    private final ExecutorService compilerThreads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "java-compiler-" + compilerThreadIndex.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        if ("in-process".equals(mode)) {
+            compiler = ToolProvider.getSystemJavaCompiler();
+            if (compiler == null) {
+                log.warn("No system Java compiler available (running on a JRE?), falling back to forked javac");
+                mode = "fork";
+                return;
+            }
+            int poolSize = configuredPoolSize > 0 ? configuredPoolSize : Runtime.getRuntime().availableProcessors();
+            for (int i = 0; i < poolSize; i++) {
+                fileManagers.add(newFileManager());
+            }
+            // Load the platform classes and JIT the compiler before the first real submission arrives
+            CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < poolSize; i++) {
+                    try {
+                        compile("public class Solution { public static void main(String[] args) { } }");
+                    } catch (Exception e) {
+                        log.warn("Compiler warm-up failed", e);
+                    }
+                }
+            });
+            log.info("In-process Java compiler ready with {} pooled file managers", poolSize);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        compilerThreads.shutdownNow();
+        for (StandardJavaFileManager fileManager : fileManagers) {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                log.warn("Failed to close file manager", e);
+            }
+        }
+    }
+
+    /**
+     * Compiles a submission whose public class is Solution.
+     *
+     * @throws CompilationException with javac-formatted diagnostics when the source does not compile
+     */
+    public CompiledArtifact compile(String code) throws IOException, InterruptedException {
+        return compile(code, MAIN_CLASS);
+    }
+
+    /**
+     * Compiles a source whose public class is {@code mainClass}, e.g. a problem's checker.
+     */
+    public CompiledArtifact compile(String code, String mainClass) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        boolean inProcess = compiler != null;
+        try {
+            return inProcess ? compileInProcess(code, mainClass) : compileWithJavac(code, mainClass);
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            (inProcess ? inProcessLatency : forkLatency).record(elapsed);
+        }
+    }
+
+    public CompilerStats getStats() {
+        return CompilerStats.builder()
+                .mode(compiler != null ? "in-process" : "fork")
+                .pooledFileManagers(fileManagers.size())
+                .inProcessCompilations(inProcessLatency.getCount())
+                .inProcessP50Millis(inProcessLatency.percentile(50))
+                .inProcessP99Millis(inProcessLatency.percentile(99))
+                .forkCompilations(forkLatency.getCount())
+                .forkP50Millis(forkLatency.percentile(50))
+                .forkP99Millis(forkLatency.percentile(99))
+                .build();
+    }
+
+    private CompiledArtifact compileInProcess(String code, String mainClass) throws InterruptedException {
+        StandardJavaFileManager fileManager = fileManagers.poll(1, TimeUnit.SECONDS);
+        boolean pooled = fileManager != null;
+        if (!pooled) {
+            fileManager = newFileManager();
+        }
+
+        CompletableFuture<Boolean> compilation = null;
+        try {
+            InMemoryFileManager memoryManager = new InMemoryFileManager(fileManager);
+            StringWriter diagnostics = new StringWriter();
+            // Without a diagnostic listener javac prints to the writer exactly as it would to stderr
+            JavaCompiler.CompilationTask task = compiler.getTask(diagnostics, memoryManager, null, OPTIONS, null,
+                    List.of(new SourceFile(mainClass + ".java", code)));
+            compilation = CompletableFuture.supplyAsync(task::call, compilerThreads);
+
+            if (!compilation.get(COMPILE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new CompilationException(diagnostics.toString());
+            }
+            return CompiledArtifact.inMemory(mainClass, memoryManager.getClassFiles());
+        } catch (TimeoutException e) {
+            throw new CompilationException("Compilation timed out");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException("Compiler failed", e.getCause());
+        } finally {
+            if (compilation != null && !compilation.isDone()) {
+                // javac does not stop when interrupted; its file manager is closed once it is done
+                // with it, and the pool gets a fresh one
+                StandardJavaFileManager abandoned = fileManager;
+                compilation.whenComplete((compiled, failure) -> closeQuietly(abandoned));
+                if (pooled) {
+                    fileManagers.add(newFileManager());
+                }
+            } else if (pooled) {
+                fileManagers.add(fileManager);
+            } else {
+                closeQuietly(fileManager);
+            }
+        }
+    }
+
+    private CompiledArtifact compileWithJavac(String code, String mainClass) throws IOException, InterruptedException {
+        String sourceFile = mainClass + ".java";
+        Path tempDir = Files.createTempDirectory("judge_");
+        CompiledArtifact artifact = CompiledArtifact.inDirectory(mainClass, tempDir);
+        try {
+            Files.write(tempDir.resolve(sourceFile), code.getBytes(StandardCharsets.UTF_8));
+
+            List<String> command = new ArrayList<>(List.of("javac"));
+            command.addAll(OPTIONS);
+            command.add(sourceFile);
+            ProcessBuilder compileBuilder = new ProcessBuilder(command);
+            compileBuilder.directory(tempDir.toFile());
+            compileBuilder.redirectErrorStream(true);
+            Process compileProcess = compileBuilder.start();
+
+            // Drain diagnostics while javac runs so a long error list cannot block it
+            CompletableFuture<byte[]> diagnostics = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return compileProcess.getInputStream().readAllBytes();
+                } catch (IOException e) {
+                    return new byte[0];
+                }
+            });
+
+            if (!compileProcess.waitFor(10, TimeUnit.SECONDS)) {
+                compileProcess.destroyForcibly();
+                throw new CompilationException("Compilation timed out");
+            }
+
+            if (compileProcess.exitValue() != 0) {
+                throw new CompilationException(new String(diagnostics.join()));
+            }
+            Files.delete(tempDir.resolve(sourceFile));
+            return artifact;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            artifact.close();
+            throw e;
+        }
+    }
+
+    private StandardJavaFileManager newFileManager() {
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+        try {
+            // Submissions only see the platform classes, never the application's own classpath
+            fileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fileManager;
+    }
+
+    private void closeQuietly(JavaFileManager fileManager) {
+        try {
+            fileManager.close();
+        } catch (IOException e) {
+            log.warn("Failed to close file manager", e);
+        }
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String name;
+        private final String code;
+
+        SourceFile(String name, String code) {
+            super(URI.create("string:///" + name), Kind.SOURCE);
+            this.name = name;
+            this.code = code;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    private static class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassFile(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Captures generated class files in memory and delegates everything else to a pooled file manager.
+     * Closing it must not close the pooled delegate.
+     */
+    private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassFile> outputs = new HashMap<>();
+
+        InMemoryFileManager(StandardJavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            ClassFile classFile = new ClassFile(className);
+            outputs.put(className, classFile);
+            return classFile;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        Map<String, byte[]> getClassFiles() {
+            Map<String, byte[]> classFiles = new HashMap<>();
+            outputs.forEach((name, file) -> classFiles.put(name, file.bytes.toByteArray()));
+            return classFiles;
+        }
+    }
+}
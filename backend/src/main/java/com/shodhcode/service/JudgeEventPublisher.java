@@ -0,0 +1,189 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.JudgeEvent;
+import com.shodhcode.entity.Submission;
+import com.shodhcode.repository.JudgeEventRepository;
+import com.shodhcode.repository.SubmissionRepository;
+import com.shodhcode.websocket.LeaderboardBroadcaster;
+import com.shodhcode.websocket.SubmissionWebSocketController;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells clients and the standings that a submission moved to JUDGING or got its verdict. With the
+ * local queue the judge runs next to the WebSocket broker and the update is pushed directly. With
+ * the database queue the judge may be on another node, so the change is written to the
+ * judge_events outbox and every API node relays new rows to its own subscribers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeEventPublisher {
+    // A lower id that is still missing this long after a higher one was relayed belonged to a
+    // transaction that rolled back, or was never written
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final JudgeEventRepository judgeEventRepository;
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionWebSocketController submissionWebSocket;
+    private final LeaderboardService leaderboardService;
+    private final LeaderboardBroadcaster leaderboardBroadcaster;
+    private final GlobalRankingService globalRankingService;
+
+    @Value("${judge.queue.type:local}")
+    private String queueType;
+
+    @Value("${judge.events.relay:true}")
+    private boolean relayEnabled;
+
+    @Value("${judge.events.poll-ms:200}")
+    private long pollMillis;
+
+    @Value("${judge.events.retention-minutes:10}")
+    private long retentionMinutes;
+
+    private final Set<Long> relayedAhead = new HashSet<>();
+    private long cursor;
+    private long gapNoticedAt;
+    private ScheduledExecutorService relay;
+
+    @PostConstruct
+    void start() {
+        if (!usesOutbox() || !relayEnabled) {
+            return;
+        }
+        // Standings are loaded from the submissions table, so only changes from now on need relaying
+        cursor = judgeEventRepository.findMaxId();
+        relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "judge-event-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relay.scheduleWithFixedDelay(this::relayNewEvents, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        relay.scheduleWithFixedDelay(this::purgeOldEvents, 1, 1, TimeUnit.MINUTES);
+        log.info("Relaying judge events from the outbox every {} ms", pollMillis);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (relay != null) {
+            relay.shutdownNow();
+        }
+    }
+
+    public void judging(Submission submission) {
+        if (usesOutbox()) {
+            record(submission, JudgeEvent.EventType.JUDGING);
+        } else {
+            submissionWebSocket.broadcastSubmissionUpdate(submission);
+        }
+    }
+
+    /**
+     * Called in the transaction that saves the verdict. The outbox row commits or rolls back with
+     * the verdict; a direct push waits until the verdict has committed.
+     */
+    public void judged(Submission submission) {
+        if (usesOutbox()) {
+            record(submission, JudgeEvent.EventType.JUDGED);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliverJudged(submission);
+                }
+            });
+        } else {
+            deliverJudged(submission);
+        }
+    }
+
+    private boolean usesOutbox() {
+        return "database".equals(queueType);
+    }
+
+    private void record(Submission submission, JudgeEvent.EventType type) {
+        judgeEventRepository.save(JudgeEvent.builder()
+                .submissionId(submission.getId())
+                .type(type)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void deliverJudged(Submission submission) {
+        leaderboardService.onJudged(submission);
+        if (submission.getStatus() == Submission.SubmissionStatus.ACCEPTED) {
+            globalRankingService.markChanged();
+        }
+        submissionWebSocket.broadcastSubmissionUpdate(submission);
+        submissionWebSocket.broadcastContestSubmission(submission.getContest().getId(),
+                JudgeService.mapToResponse(submission));
+        leaderboardBroadcaster.markChanged(submission.getContest().getId());
+    }
+
+    /**
+     * Relays events past the cursor. Ids are assigned before commit, so a lower id can become
+     * visible after a higher one; the cursor only moves over contiguous ids and rows above it that
+     * were already relayed are remembered, until a gap has been open for too long.
+     */
+    private void relayNewEvents() {
+        try {
+            List<JudgeEvent> events = judgeEventRepository.findTop500ByIdGreaterThanOrderByIdAsc(cursor);
+            for (JudgeEvent event : events) {
+                if (relayedAhead.add(event.getId())) {
+                    relay(event);
+                }
+            }
+            while (relayedAhead.remove(cursor + 1)) {
+                cursor++;
+            }
+            if (relayedAhead.isEmpty()) {
+                gapNoticedAt = 0;
+            } else if (gapNoticedAt == 0) {
+                gapNoticedAt = System.nanoTime();
+            } else if (System.nanoTime() - gapNoticedAt > GAP_TIMEOUT_NANOS) {
+                cursor = Collections.min(relayedAhead) - 1;
+                while (relayedAhead.remove(cursor + 1)) {
+                    cursor++;
+                }
+                gapNoticedAt = relayedAhead.isEmpty() ? 0 : System.nanoTime();
+            }
+        } catch (Exception e) {
+            log.error("Failed to relay judge events", e);
+        }
+    }
+
+    private void relay(JudgeEvent event) {
+        Submission submission = submissionRepository.findWithUserAndProblemById(event.getSubmissionId()).orElse(null);
+        if (submission == null) {
+            return;
+        }
+        if (event.getType() == JudgeEvent.EventType.JUDGED) {
+            deliverJudged(submission);
+        } else {
+            submissionWebSocket.broadcastSubmissionUpdate(submission);
+        }
+    }
+
+    private void purgeOldEvents() {
+        try {
+            judgeEventRepository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+        } catch (Exception e) {
+            log.error("Failed to purge old judge events", e);
+        }
+    }
+}
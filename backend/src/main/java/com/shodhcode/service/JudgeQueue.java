@@ -0,0 +1,54 @@
+package com.shodhcode.service;
+
+/**
+ * Where {@link JudgeScheduler} gets work from. judge.queue.type selects an implementation: "local"
+ * keeps jobs in this JVM, "database" keeps them in the judge_jobs table so separate judge-worker
+ * nodes can share them. With judge.queue.fairness=round-robin jobs are handed out across users in
+ * turn rather than in arrival order, so a user with many queued submissions cannot hold up everyone
+ * else's verdicts; fifo keeps arrival order.
+ */
+public interface JudgeQueue {
+    String getName();
+
+    /**
+     * Whether queued jobs survive a restart on their own. Non-durable queues are refilled from the
+     * submissions table on startup.
+     */
+    boolean isDurable();
+
+    default void start() {
+    }
+
+    default void stop() {
+    }
+
+    /**
+     * Returns false when the queue is already at capacity. The user is what judge.queue.fairness
+     * shares the workers between.
+     */
+    boolean offer(Long submissionId, Long userId);
+
+    boolean hasCapacity();
+
+    int depth();
+
+    /**
+     * Blocks until a job is available. Every claim must be passed to {@link #complete} or
+     * {@link #retry} afterwards.
+     */
+    Claim take() throws InterruptedException;
+
+    void complete(Claim claim);
+
+    /**
+     * Puts back a job the judge failed on, ahead of the user's later jobs, so it is judged again.
+     */
+    void retry(Claim claim);
+
+    /**
+     * A job handed to a worker; {@code attempt} counts from 1 and grows each time the job is retried
+     * or a lapsed lease is claimed again.
+     */
+    record Claim(Long jobId, Long submissionId, long waitMillis, int attempt) {
+    }
+}
@@ -0,0 +1,206 @@
+package com.shodhcode.service;
+
+import com.shodhcode.dto.JudgeQueueStats;
+import com.shodhcode.entity.Submission;
+import com.shodhcode.repository.SubmissionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds queued submissions to a fixed pool of judge workers. The queue is the {@link JudgeQueue}
+ * named by judge.queue.type: the local queue only holds ids, so anything left PENDING or JUDGING by
+ * a restart is picked up again from the submissions table on startup; the database queue survives
+ * restarts itself and can be shared with judge-worker nodes. With judge.worker.enabled=false this
+ * node only enqueues and leaves judging to the workers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeScheduler {
+    private final JudgeService judgeService;
+    private final SubmissionRepository submissionRepository;
+    private final List<JudgeQueue> queues;
+
+    @Value("${judge.workers:0}")
+    private int configuredWorkers;
+
+    @Value("${judge.queue.type:local}")
+    private String queueType;
+
+    @Value("${judge.queue.capacity:500}")
+    private int queueCapacity;
+
+    @Value("${judge.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${judge.worker.enabled:true}")
+    private boolean workerEnabled;
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicLong completedJobs = new AtomicLong();
+    private final AtomicLong rejectedJobs = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+    private volatile long lastWaitMillis;
+
+    private JudgeQueue queue;
+    private ExecutorService workers;
+    private int workerCount;
+
+    @PostConstruct
+    void start() {
+        queue = queues.stream()
+                .filter(candidate -> candidate.getName().equals(queueType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown judge.queue.type: " + queueType));
+        queue.start();
+        if (!workerEnabled) {
+            log.info("Judge workers disabled, submissions are enqueued on the {} queue only", queueType);
+            return;
+        }
+        workerCount = configuredWorkers > 0 ? configuredWorkers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "judge-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::workLoop);
+        }
+        log.info("Judge scheduler started with {} workers on the {} queue, capacity {}", workerCount, queueType,
+                queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        queue.stop();
+    }
+
+    /**
+     * Re-enqueues submissions that were waiting or mid-judgement when the previous instance stopped.
+     * Recovery ignores the capacity limit: these rows were already accepted once. Durable queues
+     * still hold their jobs and need no recovery.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnfinishedSubmissions() {
+        if (!(queue instanceof LocalJudgeQueue localQueue)) {
+            return;
+        }
+        List<Submission> unfinished = submissionRepository.findByStatusInOrderBySubmittedAtAsc(
+                List.of(Submission.SubmissionStatus.PENDING, Submission.SubmissionStatus.JUDGING));
+        for (Submission submission : unfinished) {
+            localQueue.requeue(submission.getId(), submission.getUser().getId());
+        }
+        if (!unfinished.isEmpty()) {
+            log.info("Re-enqueued {} unfinished submissions", unfinished.size());
+        }
+    }
+
+    /**
+     * Returns false when the queue is already at capacity, so callers can push back on the client.
+     */
+    public boolean submit(Long submissionId, Long userId) {
+        if (!queue.offer(submissionId, userId)) {
+            rejectedJobs.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public boolean hasCapacity() {
+        return queue.hasCapacity();
+    }
+
+    /**
+     * Jobs waiting for a worker, not counting the ones being judged.
+     */
+    public int getQueueDepth() {
+        return queue.depth();
+    }
+
+    public JudgeQueueStats getStats() {
+        long completed = completedJobs.get();
+        return JudgeQueueStats.builder()
+                .queueType(queueType)
+                .workers(workerCount)
+                .activeWorkers(activeWorkers.get())
+                .queueDepth(queue.depth())
+                .queueCapacity(queueCapacity)
+                .completedJobs(completed)
+                .rejectedJobs(rejectedJobs.get())
+                .averageWaitMillis(completed == 0 ? 0 : totalWaitMillis.get() / completed)
+                .maxWaitMillis(maxWaitMillis.get())
+                .lastWaitMillis(lastWaitMillis)
+                .build();
+    }
+
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            JudgeQueue.Claim claim;
+            try {
+                claim = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to take a job from the {} queue", queueType, e);
+                pause();
+                continue;
+            }
+
+            long waitMillis = claim.waitMillis();
+            lastWaitMillis = waitMillis;
+            totalWaitMillis.addAndGet(waitMillis);
+            maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+
+            activeWorkers.incrementAndGet();
+            boolean finished = false;
+            try {
+                if (claim.attempt() > maxAttempts) {
+                    // Every earlier attempt failed in the judge, or its worker died or lost the lease
+                    judgeService.abandon(claim.submissionId(),
+                            "Judging failed after " + maxAttempts + " attempts");
+                } else {
+                    judgeService.judgeSubmission(claim.submissionId());
+                }
+                finished = true;
+            } catch (Exception e) {
+                log.error("Judge worker failed on submission {}, attempt {}", claim.submissionId(), claim.attempt(), e);
+            } finally {
+                try {
+                    if (finished) {
+                        queue.complete(claim);
+                    } else {
+                        queue.retry(claim);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to hand back the job for submission {}", claim.submissionId(), e);
+                }
+                activeWorkers.decrementAndGet();
+                completedJobs.incrementAndGet();
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,175 +3,281 @@ package com.shodhcode.service;
 import com.shodhcode.dto.SubmissionResponse;
 import com.shodhcode.entity.*;
 import com.shodhcode.repository.*;
-import com.shodhcode.websocket.LeaderboardWebSocketController;
-import com.shodhcode.websocket.SubmissionWebSocketController;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.io.*;
-import java.nio.file.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.*;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JudgeService {
+    private static final int DEFAULT_TIME_LIMIT_MILLIS = 2000;
+    private static final int DEFAULT_MEMORY_LIMIT_MB = 256;
+    private static final int OUTPUT_PREVIEW_BYTES = 8 * 1024;
+    private static final List<Submission.SubmissionStatus> UNFINISHED =
+            List.of(Submission.SubmissionStatus.PENDING, Submission.SubmissionStatus.JUDGING);
+
     private final SubmissionRepository submissionRepository;
-    private final TestCaseRepository testCaseRepository;
+    private final TestCaseCache testCaseCache;
     private final ProblemRepository problemRepository;
     private final UserRepository userRepository;
-    private final SubmissionWebSocketController submissionWebSocket;
-    private final LeaderboardWebSocketController leaderboardWebSocket;
+    private final TransactionTemplate transactionTemplate;
+    private final JudgeEventPublisher judgeEventPublisher;
+    private final CompiledArtifactCache compiledArtifactCache;
+    private final VerdictCache verdictCache;
+    private final OutputComparatorFactory outputComparatorFactory;
+    private final LanguageRuntimes languageRuntimes;
+    private final TestCaseExecutor testCaseExecutor;
+    private final SandboxPool sandboxPool;
 
-    public SubmissionResponse judgeSubmission(Long submissionId) {
-        Submission submission = submissionRepository.findById(submissionId)
-                .orElseThrow(() -> new RuntimeException("Submission not found"));
+    @Value("${judge.output.limit-bytes:16777216}")
+    private long outputLimitBytes;
 
+    /**
+     * Judges the submission and saves its verdict. Only what the program did becomes a verdict: when
+     * the judge itself fails (sandbox, runtime, special checker, database) this throws and leaves the
+     * submission unfinished, so the queue can try again and abandon it after too many attempts.
+     */
+    public SubmissionResponse judgeSubmission(Long submissionId) throws Exception {
+        Submission submission = submissionRepository.findWithUserAndProblemById(submissionId)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+        if (isFinished(submission)
+                || submissionRepository.updateStatus(submissionId, UNFINISHED, Submission.SubmissionStatus.JUDGING) == 0) {
+            // A job claimed again after its lease lapsed, but the earlier worker had already saved the verdict
+            log.info("Submission {} already judged, skipping", submissionId);
+            return mapToResponse(submission);
+        }
         submission.setStatus(Submission.SubmissionStatus.JUDGING);
-        submissionRepository.save(submission);
-        submissionWebSocket.broadcastSubmissionUpdate(submissionId);
+        judgeEventPublisher.judging(submission);
 
-        try {
-            JudgeResult result = executeCode(submission);
-            updateSubmissionWithResult(submission, result);
-        } catch (Exception e) {
-            log.error("Error judging submission", e);
-            submission.setStatus(Submission.SubmissionStatus.RUNTIME_ERROR);
-            submission.setError(e.getMessage());
+        JudgeResult result = executeCode(submission);
+        updateSubmissionWithResult(submission, result);
+
+        if (!finalise(submission)) {
+            log.warn("Submission {} was finished by another worker, dropping this verdict", submissionId);
         }
+        return mapToResponse(submission);
+    }
 
-        submission = submissionRepository.save(submission);
-        
-        submissionWebSocket.broadcastSubmissionUpdate(submissionId);
-        submissionWebSocket.broadcastContestSubmission(submission.getContest().getId(), mapToResponse(submission));
-        leaderboardWebSocket.broadcastLeaderboard(submission.getContest().getId());
+    /**
+     * Gives up on a submission that could not be judged, reporting it as a runtime error.
+     */
+    public void abandon(Long submissionId, String reason) {
+        Submission submission = submissionRepository.findWithUserAndProblemById(submissionId).orElse(null);
+        if (submission == null || isFinished(submission)) {
+            return;
+        }
+        log.warn("Abandoning submission {}: {}", submissionId, reason);
+        submission.setStatus(Submission.SubmissionStatus.RUNTIME_ERROR);
+        submission.setError(reason);
+        finalise(submission);
+    }
 
-        return mapToResponse(submission);
+    private static boolean isFinished(Submission submission) {
+        return !UNFINISHED.contains(submission.getStatus());
+    }
+
+    /**
+     * Saves the verdict, the JUDGED event and, for an accepted submission, the points it earns, in
+     * one transaction, so the event can never be lost after the verdict committed. The counters are
+     * incremented in the database, so concurrent accepts never lose an update, and nothing is
+     * applied when the submission was already finished elsewhere.
+     *
+     * @return false when the submission had already been finished
+     */
+    private boolean finalise(Submission submission) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (submissionRepository.saveVerdict(submission, UNFINISHED) == 0) {
+                return false;
+            }
+            if (submission.getStatus() == Submission.SubmissionStatus.ACCEPTED) {
+                Problem problem = submission.getProblem();
+                problemRepository.incrementSolvedCount(problem.getId());
+                userRepository.addSolve(submission.getUser().getId(), problem.getPoints());
+            }
+            judgeEventPublisher.judged(submission);
+            return true;
+        }));
     }
 
     private JudgeResult executeCode(Submission submission) throws Exception {
         Problem problem = submission.getProblem();
-        List<TestCase> testCases = testCaseRepository.findByProblemIdAndIsHiddenFalse(problem.getId());
+        TestCaseCache.ProblemTests problemTests = testCaseCache.get(problem.getId());
+        String sourceFingerprint = SourceFingerprint.of(submission.getCode(), submission.getLanguage());
+        String verdictKey = SourceFingerprint.verdictKey(sourceFingerprint, problem.getId(), problemTests.version());
+        JudgeResult cached = verdictCache.get(verdictKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        JudgeResult result = judgeAgainstTests(submission, problemTests.tests(), sourceFingerprint);
+        verdictCache.put(verdictKey, problem.getId(), result);
+        return result;
+    }
+
+    private JudgeResult judgeAgainstTests(Submission submission, List<TestCaseCache.CachedTestCase> tests,
+                                          String sourceFingerprint) throws Exception {
+        Problem problem = submission.getProblem();
+        List<TestCaseCache.CachedTestCase> samples = tests.stream().filter(test -> !test.hidden()).toList();
+        List<TestCaseCache.CachedTestCase> hidden = tests.stream().filter(TestCaseCache.CachedTestCase::hidden).toList();
 
         JudgeResult result = new JudgeResult();
-        result.setTotalTests(testCases.size());
+        result.setTotalTests(tests.size());
         result.setPassedTests(0);
 
-        for (TestCase testCase : testCases) {
-            try {
-                String output = runCode(submission.getCode(), testCase.getInput(), submission.getLanguage());
-                String expected = testCase.getExpectedOutput().trim();
-                String actual = output.trim();
-
-                if (expected.equals(actual)) {
-                    result.setPassedTests(result.getPassedTests() + 1);
-                } else {
-                    result.setVerdict("WRONG_ANSWER");
-                    result.setOutput(actual);
-                    result.setExpectedOutput(expected);
-                    break;
-                }
-            } catch (TimeoutException e) {
-                result.setVerdict("TIME_LIMIT_EXCEEDED");
-                break;
-            } catch (Exception e) {
-                result.setVerdict("RUNTIME_ERROR");
-                result.setError(e.getMessage());
-                break;
+        LanguageRuntime runtime = languageRuntimes.find(submission.getLanguage())
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported language: " + submission.getLanguage()));
+        CompiledArtifact artifact;
+        try {
+            artifact = compiledArtifactCache.compile(sourceFingerprint, submission.getCode(), runtime);
+        } catch (CompilationException e) {
+            result.setVerdict("COMPILATION_ERROR");
+            result.setError(e.getMessage());
+            return result;
+        }
+
+        long timeLimitMillis = problem.getTimeLimitMs() != null ? problem.getTimeLimitMs() : DEFAULT_TIME_LIMIT_MILLIS;
+        ResourceLimits limits = new ResourceLimits(Math.round(timeLimitMillis * runtime.getTimeMultiplier()),
+                problem.getMemoryLimitMb() != null ? problem.getMemoryLimitMb() : DEFAULT_MEMORY_LIMIT_MB);
+        TierResult sampleTier;
+        TierResult hiddenTier = null;
+        try (artifact) {
+            OutputComparatorFactory.PerTest comparators = outputComparatorFactory.forProblem(problem);
+            // Samples are cheap and usually catch broken solutions; hidden tests only run once they all pass
+            sampleTier = runTier(runtime, artifact, samples, samples, limits, comparators);
+            if (sampleTier.failure() == null) {
+                hiddenTier = runTier(runtime, artifact, hidden, TestCaseCache.byRejectionsDescending(hidden),
+                        limits, comparators);
             }
         }
 
-        if (result.getPassedTests() == testCases.size()) {
+        result.setSamplesPassed(sampleTier.passed());
+        result.setSamplesTotal(samples.size());
+        result.setHiddenTotal(hidden.size());
+        result.setExecutionTime((int) sampleTier.cpuMillis());
+        result.setMemoryUsed((int) Math.ceil(sampleTier.memoryKb() / 1024.0));
+        if (hiddenTier != null) {
+            result.setHiddenPassed(hiddenTier.passed());
+            result.setExecutionTime(Math.max(result.getExecutionTime(), (int) hiddenTier.cpuMillis()));
+            result.setMemoryUsed(Math.max(result.getMemoryUsed(), (int) Math.ceil(hiddenTier.memoryKb() / 1024.0)));
+        }
+        if (!sandboxPool.isMeasured()) {
+            // What was sampled is not the program; record nothing rather than earn a bonus on it
+            result.setExecutionTime(null);
+            result.setMemoryUsed(null);
+        }
+        result.setPassedTests(sampleTier.passed() + (hiddenTier != null ? hiddenTier.passed() : 0));
+
+        TierResult failedTier = sampleTier.failure() != null ? sampleTier : hiddenTier;
+        if (failedTier.failure() == null) {
             result.setVerdict("ACCEPTED");
+            return result;
         }
 
+        TestOutcome failure = failedTier.failure();
+        testCaseCache.recordRejection(failedTier.failedTest());
+        result.setVerdict(failure.getVerdict());
+        result.setFailedTier(failedTier == sampleTier ? "SAMPLE" : "HIDDEN");
+        result.setFailedTestNumber(failedTier.failedTestNumber());
+        if (failedTier == sampleTier) {
+            result.setOutput(failure.getOutput());
+            result.setExpectedOutput(failure.getExpectedOutput());
+            result.setError(failure.getError());
+        } else if (failure.getError() != null) {
+            // Output and error text of a hidden test could reveal its data, so only say which test failed
+            result.setError("Failed hidden test #" + failedTier.failedTestNumber());
+        }
         return result;
     }
 
-    private String runCode(String code, String input, String language) throws Exception {
-        Path tempDir = Files.createTempDirectory("judge_");
-        try {
-            String fileName = "Solution.java";
-            Path sourceFile = tempDir.resolve(fileName);
-            Files.write(sourceFile, code.getBytes());
-
-            // Compile
-            ProcessBuilder compileBuilder = new ProcessBuilder("javac", sourceFile.toString());
-            compileBuilder.directory(tempDir.toFile());
-            Process compileProcess = compileBuilder.start();
-            
-            if (!compileProcess.waitFor(5, TimeUnit.SECONDS)) {
-                compileProcess.destroyForcibly();
-                throw new TimeoutException("Compilation timeout");
-            }
-
-            if (compileProcess.exitValue() != 0) {
-                String error = new String(compileProcess.getErrorStream().readAllBytes());
-                throw new RuntimeException("Compilation error: " + error);
-            }
+    /**
+     * Runs one tier of tests in the given order, stopping at the first failure. Tests are numbered
+     * by their position in {@code numbered}, which stays stable however the run order changes.
+     */
+    private TierResult runTier(LanguageRuntime runtime, CompiledArtifact artifact,
+                               List<TestCaseCache.CachedTestCase> numbered, List<TestCaseCache.CachedTestCase> runOrder,
+                               ResourceLimits limits, OutputComparatorFactory.PerTest comparators)
+            throws Exception {
+        TestOutcome[] outcomes = new TestOutcome[runOrder.size()];
+        int firstFailure = testCaseExecutor.runUntilFirstFailure(runOrder.size(), (index, control) -> {
+            outcomes[index] = runTest(runtime, artifact, runOrder.get(index), limits, comparators, control);
+            return outcomes[index].getVerdict() == null;
+        });
 
-            // Execute
-            ProcessBuilder runBuilder = new ProcessBuilder("java", "-cp", tempDir.toString(), "Solution");
-            runBuilder.directory(tempDir.toFile());
-            Process runProcess = runBuilder.start();
+        // Every test up to and including the first failure ran to completion
+        long cpuMillis = 0;
+        long memoryKb = 0;
+        for (int i = 0; i < Math.min(firstFailure + 1, runOrder.size()); i++) {
+            cpuMillis = Math.max(cpuMillis, outcomes[i].getCpuMillis());
+            memoryKb = Math.max(memoryKb, outcomes[i].getMemoryKb());
+        }
+        if (firstFailure == runOrder.size()) {
+            return new TierResult(firstFailure, null, null, 0, cpuMillis, memoryKb);
+        }
+        if (outcomes[firstFailure].getJudgeError() != null) {
+            // The judge, not the program, failed; nothing about this test or program may be remembered
+            throw outcomes[firstFailure].getJudgeError();
+        }
+        TestCaseCache.CachedTestCase failedTest = runOrder.get(firstFailure);
+        return new TierResult(firstFailure, outcomes[firstFailure], failedTest, numbered.indexOf(failedTest) + 1,
+                cpuMillis, memoryKb);
+    }
 
-            // Write input
-            try (OutputStream os = runProcess.getOutputStream()) {
-                os.write(input.getBytes());
-                os.flush();
-            }
+    private TestOutcome runTest(LanguageRuntime runtime, CompiledArtifact artifact, TestCaseCache.CachedTestCase testCase,
+                                ResourceLimits limits, OutputComparatorFactory.PerTest comparators,
+                                ExecutionControl control) {
+        TestOutcome outcome = new TestOutcome();
+        OutputSink stdout = new OutputSink(comparators.create(testCase.input(), testCase.expectedOutput()),
+                outputLimitBytes, OUTPUT_PREVIEW_BYTES);
+        try {
+            RunOutcome run = runtime.run(artifact, testCase.input(), stdout, limits, control);
+            outcome.setCpuMillis(run.cpuMillis());
+            outcome.setWallMillis(run.wallMillis());
+            outcome.setMemoryKb(run.memoryKb());
 
-            // Read output with timeout
-            StringBuilder output = new StringBuilder();
-            if (runProcess.waitFor(2, TimeUnit.SECONDS)) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(runProcess.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        output.append(line).append("\n");
-                    }
-                }
-            } else {
-                runProcess.destroyForcibly();
-                throw new TimeoutException("Execution timeout");
+            if (stdout.isLimitExceeded()) {
+                outcome.setVerdict("OUTPUT_LIMIT_EXCEEDED");
+            } else if (run.memoryLimitExceeded()) {
+                outcome.setVerdict("MEMORY_LIMIT_EXCEEDED");
+            } else if (run.timedOut()) {
+                outcome.setVerdict("TIME_LIMIT_EXCEEDED");
+            } else if (run.exitCode() != 0) {
+                outcome.setVerdict("RUNTIME_ERROR");
+                outcome.setError(run.stderr().isBlank() ? "Exited with code " + run.exitCode() : run.stderr());
+            } else if (!stdout.matches()) {
+                outcome.setVerdict("WRONG_ANSWER");
+                outcome.setOutput(stdout.getPreview().trim());
+                outcome.setExpectedOutput(new String(testCase.expectedOutput(), StandardCharsets.UTF_8).trim());
             }
-
-            return output.toString();
-        } finally {
-            // Cleanup
-            Files.walk(tempDir)
-                    .sorted(Comparator.reverseOrder())
-                    .forEach(path -> {
-                        try {
-                            Files.delete(path);
-                        } catch (IOException e) {
-                            log.warn("Failed to delete temp file: " + path);
-                        }
-                    });
+        } catch (Exception e) {
+            // The sandbox, the runtime or a special checker failed; reported by runTier
+            outcome.setVerdict("RUNTIME_ERROR");
+            outcome.setJudgeError(e);
         }
+        return outcome;
     }
 
     private void updateSubmissionWithResult(Submission submission, JudgeResult result) {
         submission.setVerdict(result.getVerdict());
         submission.setOutput(result.getOutput());
         submission.setError(result.getError());
+        submission.setExecutionTime(result.getExecutionTime());
+        submission.setMemoryUsed(result.getMemoryUsed());
+        submission.setSamplesPassed(result.getSamplesPassed());
+        submission.setSamplesTotal(result.getSamplesTotal());
+        submission.setHiddenPassed(result.getHiddenPassed());
+        submission.setHiddenTotal(result.getHiddenTotal());
+        submission.setFailedTier(result.getFailedTier());
+        submission.setFailedTestNumber(result.getFailedTestNumber());
         submission.setStatus(Submission.SubmissionStatus.valueOf(result.getVerdict()));
-
-        if ("ACCEPTED".equals(result.getVerdict())) {
-            Problem problem = submission.getProblem();
-            problem.setSolvedCount(problem.getSolvedCount() + 1);
-            problemRepository.save(problem);
-
-            User user = submission.getUser();
-            user.setScore(user.getScore() + problem.getPoints());
-            user.setProblemsSolved(user.getProblemsSolved() + 1);
-            userRepository.save(user);
-        }
     }
 
-    private SubmissionResponse mapToResponse(Submission submission) {
+    static SubmissionResponse mapToResponse(Submission submission) {
         return SubmissionResponse.builder()
                 .id(submission.getId())
                 .userId(submission.getUser().getId())
@@ -182,20 +288,57 @@ public class JudgeService {
                 .error(submission.getError())
                 .executionTime(submission.getExecutionTime())
                 .memoryUsed(submission.getMemoryUsed())
+                .samplesPassed(submission.getSamplesPassed())
+                .samplesTotal(submission.getSamplesTotal())
+                .hiddenPassed(submission.getHiddenPassed())
+                .hiddenTotal(submission.getHiddenTotal())
+                .failedTier(submission.getFailedTier())
+                .failedTestNumber(submission.getFailedTestNumber())
                 .submittedAt(submission.getSubmittedAt())
                 .language(submission.getLanguage())
                 .build();
     }
 
+    private record TierResult(int passed, TestOutcome failure, TestCaseCache.CachedTestCase failedTest,
+                              int failedTestNumber, long cpuMillis, long memoryKb) {
+    }
+
+    /**
+     * Result of a single test; a null verdict means the test passed. A judge error means the test
+     * could not be judged at all, whatever the verdict says.
+     */
+    @lombok.Data
+    private static class TestOutcome {
+        private String verdict;
+        private String output;
+        private String expectedOutput;
+        private String error;
+        private long cpuMillis;
+        private long wallMillis;
+        private long memoryKb;
+        private Exception judgeError;
+    }
+
+    /**
+     * Outcome of judging a submission. Package-private so {@link VerdictCache} can keep it.
+     */
     @lombok.Data
     @lombok.NoArgsConstructor
     @lombok.AllArgsConstructor
-    private static class JudgeResult {
+    static class JudgeResult {
         private String verdict = "PENDING";
         private String output;
         private String expectedOutput;
         private String error;
         private Integer totalTests = 0;
         private Integer passedTests = 0;
+        private Integer executionTime = 0;
+        private Integer memoryUsed = 0;
+        private Integer samplesPassed;
+        private Integer samplesTotal;
+        private Integer hiddenPassed;
+        private Integer hiddenTotal;
+        private String failedTier;
+        private Integer failedTestNumber;
     }
 }
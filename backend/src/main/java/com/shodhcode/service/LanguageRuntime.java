@@ -0,0 +1,32 @@
+package com.shodhcode.service;
+
+import java.io.IOException;
+
+/**
+ * Compiles and runs submissions of one language. Implementations are Spring beans collected by
+ * {@link LanguageRuntimes}; a compiled artifact is reused across all tests of a submission and,
+ * through {@link CompiledArtifactCache}, across resubmissions of the same source.
+ */
+public interface LanguageRuntime {
+    /**
+     * Canonical language name as stored on submissions, e.g. JAVA.
+     */
+    String getLanguage();
+
+    /**
+     * Factor applied to a problem's time limit, so slower languages get proportionally more time.
+     */
+    double getTimeMultiplier();
+
+    /**
+     * @throws CompilationException with the compiler's diagnostics when the source does not compile
+     */
+    CompiledArtifact compile(String code) throws IOException, InterruptedException;
+
+    /**
+     * Runs the artifact against one test input, streaming its stdout into the sink. The limits
+     * already include the time multiplier.
+     */
+    RunOutcome run(CompiledArtifact artifact, byte[] input, OutputSink stdout, ResourceLimits limits,
+                   ExecutionControl control) throws Exception;
+}
@@ -0,0 +1,33 @@
+package com.shodhcode.service;
+
+import org.springframework.stereotype.Service;
+import java.util.*;
+
+/**
+ * Looks up the {@link LanguageRuntime} of a submission's language. Names are case-insensitive and
+ * a few common spellings (C++, PY, PYTHON3) are accepted as aliases.
+ */
+@Service
+public class LanguageRuntimes {
+    private static final Map<String, String> ALIASES = Map.of("C++", "CPP", "PY", "PYTHON", "PYTHON3", "PYTHON");
+
+    private final Map<String, LanguageRuntime> runtimes = new HashMap<>();
+
+    public LanguageRuntimes(List<LanguageRuntime> available) {
+        for (LanguageRuntime runtime : available) {
+            runtimes.put(runtime.getLanguage(), runtime);
+        }
+    }
+
+    public Optional<LanguageRuntime> find(String language) {
+        if (language == null) {
+            return Optional.empty();
+        }
+        String name = language.trim().toUpperCase(Locale.ROOT);
+        return Optional.ofNullable(runtimes.get(ALIASES.getOrDefault(name, name)));
+    }
+
+    public Set<String> getLanguages() {
+        return new TreeSet<>(runtimes.keySet());
+    }
+}
@@ -0,0 +1,110 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.Contest;
+import com.shodhcode.entity.Problem;
+import com.shodhcode.entity.Submission;
+import com.shodhcode.repository.ContestRepository;
+import com.shodhcode.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the in-memory standings of every contest. Standings are built from the accepted submissions
+ * in the database at startup (or on first access) and then updated incrementally as the judge
+ * finalises verdicts, so leaderboard reads never scan submissions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+    private final ContestRepository contestRepository;
+    private final SubmissionRepository submissionRepository;
+
+    private final Map<Long, ContestStandings> standingsByContest = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        for (Contest contest : contestRepository.findAll()) {
+            // Completed contests are served from their final snapshot; their standings are built on demand
+            if (contest.getStatus() != Contest.ContestStatus.COMPLETED) {
+                standingsByContest.computeIfAbsent(contest.getId(), id -> load(contest));
+            }
+        }
+        log.info("Loaded standings for {} contests", standingsByContest.size());
+    }
+
+    public Optional<ContestStandings> standings(Long contestId) {
+        ContestStandings standings = standingsByContest.get(contestId);
+        if (standings != null) {
+            return Optional.of(standings);
+        }
+        return contestRepository.findById(contestId)
+                .map(contest -> standingsByContest.computeIfAbsent(contestId, id -> load(contest)));
+    }
+
+    /**
+     * Called by the judge once a submission's verdict has been saved.
+     */
+    public void onJudged(Submission submission) {
+        if (submission.getStatus() == Submission.SubmissionStatus.ACCEPTED) {
+            standings(submission.getContest().getId()).ifPresent(standings -> apply(standings, submission));
+        }
+    }
+
+    /**
+     * Builds the contest's standings afresh from the accepted submissions in the database, without
+     * touching the ones held in memory.
+     */
+    public ContestStandings rebuild(Contest contest) {
+        return load(contest);
+    }
+
+    private ContestStandings load(Contest contest) {
+        ContestStandings standings = new ContestStandings(contest.getStartTime());
+        for (Submission submission : submissionRepository.findByContestIdAndStatus(
+                contest.getId(), Submission.SubmissionStatus.ACCEPTED)) {
+            apply(standings, submission);
+        }
+        return standings;
+    }
+
+    private void apply(ContestStandings standings, Submission submission) {
+        standings.applyAccepted(submission.getUser().getId(), submission.getUser().getUsername(),
+                submission.getProblem().getId(), pointsFor(submission), submission.getSubmittedAt());
+    }
+
+    /**
+     * Contest points for an accepted submission: a base by difficulty plus an optimisation bonus
+     * for fast, lean solutions.
+     */
+    static int pointsFor(Submission submission) {
+        Problem problem = submission.getProblem();
+        String difficulty = problem.getDifficulty() != null ? problem.getDifficulty() : "MEDIUM";
+
+        int points = 0;
+        if ("EASY".equals(difficulty)) {
+            points = 10;
+        } else if ("MEDIUM".equals(difficulty)) {
+            points = 25;
+        } else if ("HARD".equals(difficulty)) {
+            points = 50;
+        }
+
+        double optimizationBonus = 1.0;
+        if (submission.getExecutionTime() != null && submission.getMemoryUsed() != null) {
+            if (submission.getExecutionTime() < 100 && submission.getMemoryUsed() < 50) {
+                optimizationBonus = 1.2; // 20% bonus for highly optimized solutions
+            } else if (submission.getExecutionTime() < 200 && submission.getMemoryUsed() < 100) {
+                optimizationBonus = 1.1; // 10% bonus for optimized solutions
+            }
+        }
+
+        return (int) (points * optimizationBonus);
+    }
+}
@@ -0,0 +1,154 @@
+package com.shodhcode.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory queue of submission ids for a single node that serves the API and judges. The
+ * submissions table is the durable record, so jobs lost on restart are re-enqueued from it.
+ * Jobs are kept in one FIFO lane per user, and the lanes of users with waiting jobs take turns;
+ * in fifo mode every job shares one lane.
+ */
+@Component
+public class LocalJudgeQueue implements JudgeQueue {
+    private static final Long SHARED_LANE = 0L;
+
+    @Value("${judge.queue.capacity:500}")
+    private int capacity;
+
+    @Value("${judge.queue.fairness:round-robin}")
+    private String fairness;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<Long, ArrayDeque<Entry>> lanes = new HashMap<>();
+    // Users with waiting jobs, in the order they get their next turn
+    private final ArrayDeque<Long> turns = new ArrayDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // Jobs handed to a worker and not completed yet, by submission id
+    private final Map<Long, Entry> claimed = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+
+    @Override
+    public boolean offer(Long submissionId, Long userId) {
+        return add(submissionId, userId, true);
+    }
+
+    /**
+     * Enqueues regardless of capacity, for recovered submissions that were already accepted once.
+     */
+    public void requeue(Long submissionId, Long userId) {
+        add(submissionId, userId, false);
+    }
+
+    private boolean add(Long submissionId, Long userId, boolean bounded) {
+        Long lane = laneOf(userId);
+        lock.lock();
+        try {
+            // Checked under the lock, so concurrent offers cannot overrun the capacity
+            if (bounded && !hasCapacity()) {
+                return false;
+            }
+            enqueue(lane, new Entry(submissionId, userId, System.nanoTime(), 1), false);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Long laneOf(Long userId) {
+        return "round-robin".equals(fairness) && userId != null ? userId : SHARED_LANE;
+    }
+
+    private void enqueue(Long lane, Entry entry, boolean first) {
+        ArrayDeque<Entry> entries = lanes.computeIfAbsent(lane, id -> new ArrayDeque<>());
+        if (entries.isEmpty()) {
+            turns.add(lane);
+        }
+        if (first) {
+            entries.addFirst(entry);
+        } else {
+            entries.add(entry);
+        }
+        size.incrementAndGet();
+        notEmpty.signal();
+    }
+
+    @Override
+    public boolean hasCapacity() {
+        return size.get() < capacity;
+    }
+
+    @Override
+    public int depth() {
+        return size.get();
+    }
+
+    @Override
+    public Claim take() throws InterruptedException {
+        Entry entry;
+        lock.lockInterruptibly();
+        try {
+            while (turns.isEmpty()) {
+                notEmpty.await();
+            }
+            Long lane = turns.poll();
+            ArrayDeque<Entry> entries = lanes.get(lane);
+            entry = entries.poll();
+            if (entries.isEmpty()) {
+                lanes.remove(lane);
+            } else {
+                turns.add(lane);
+            }
+            size.decrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        claimed.put(entry.submissionId(), entry);
+        return new Claim(null, entry.submissionId(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.enqueuedAt()), entry.attempt());
+    }
+
+    @Override
+    public void complete(Claim claim) {
+        claimed.remove(claim.submissionId());
+    }
+
+    /**
+     * Puts the job back at the head of its user's lane, regardless of capacity.
+     */
+    @Override
+    public void retry(Claim claim) {
+        Entry entry = claimed.remove(claim.submissionId());
+        if (entry == null) {
+            return;
+        }
+        Long lane = laneOf(entry.userId());
+        lock.lock();
+        try {
+            enqueue(lane, new Entry(entry.submissionId(), entry.userId(), entry.enqueuedAt(), entry.attempt() + 1), true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(Long submissionId, Long userId, long enqueuedAt, int attempt) {
+    }
+}
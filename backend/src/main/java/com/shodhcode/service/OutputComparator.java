@@ -0,0 +1,12 @@
+package com.shodhcode.service;
+
+/**
+ * Decides whether a test run's output is acceptable. The output is fed in chunks as the program
+ * produces it; {@link #matches()} is called once after the last chunk. Instances are single-use.
+ * Which implementation a problem uses is chosen by {@link OutputComparatorFactory}.
+ */
+public interface OutputComparator {
+    void feed(byte[] buffer, int offset, int length);
+
+    boolean matches();
+}
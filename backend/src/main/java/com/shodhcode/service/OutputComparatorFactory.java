@@ -0,0 +1,112 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.Problem;
+import com.shodhcode.runner.SubmissionClassLoader;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the {@link OutputComparator} configured on a problem. Built-in comparators are created per
+ * test run. Special checkers are compiled once per checker source and kept loaded, so later
+ * submissions reuse the warm class.
+ *
+ * <p>A special checker is a class named {@code Checker} with a method
+ * {@code public static boolean check(String input, String expectedOutput, String actualOutput)}.
+ * It is loaded next to the platform classes only, like submissions in a warm runner, and runs on a
+ * thread of its own under {@code judge.checker.time-limit-ms}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutputComparatorFactory {
+    private static final String CHECKER_CLASS = "Checker";
+    private static final double DEFAULT_EPSILON = 1e-6;
+
+    private final JavaSourceCompiler javaSourceCompiler;
+    private final Map<Long, LoadedChecker> checkers = new ConcurrentHashMap<>();
+    // Platform threads, so a checker stuck in a loop cannot pin a carrier other tests need
+    private final AtomicInteger checkerThreadIndex = new AtomicInteger();
+    private final ExecutorService checkerThreads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "special-checker-" + checkerThreadIndex.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${judge.checker.time-limit-ms:10000}")
+    private long checkerTimeLimitMillis;
+
+    @PreDestroy
+    void stop() {
+        checkerThreads.shutdownNow();
+    }
+
+    /**
+     * Resolves the problem's comparison mode once per submission; the result creates a fresh
+     * comparator for every test.
+     */
+    public PerTest forProblem(Problem problem) throws IOException, InterruptedException {
+        Problem.CheckerType type = problem.getCheckerType() != null ? problem.getCheckerType() : Problem.CheckerType.TOKENS;
+        switch (type) {
+            case EXACT:
+                return (input, expected) -> new ExactComparator(expected);
+            case FLOAT:
+                double absoluteEpsilon = problem.getAbsoluteEpsilon() != null ? problem.getAbsoluteEpsilon() : DEFAULT_EPSILON;
+                double relativeEpsilon = problem.getRelativeEpsilon() != null ? problem.getRelativeEpsilon() : DEFAULT_EPSILON;
+                return (input, expected) -> new FloatTokenComparator(expected, absoluteEpsilon, relativeEpsilon);
+            case UNORDERED_LINES:
+                return (input, expected) -> new UnorderedLinesComparator(expected);
+            case SPECIAL:
+                Method check = checker(problem);
+                return (input, expected) -> new SpecialCheckerComparator(check, input, expected, checkerThreads,
+                        checkerTimeLimitMillis);
+            default:
+                return (input, expected) -> new TokenStreamComparator(expected);
+        }
+    }
+
+    private Method checker(Problem problem) throws IOException, InterruptedException {
+        String source = problem.getCheckerSource();
+        if (source == null || source.isBlank()) {
+            throw new IllegalStateException("Problem " + problem.getId() + " uses a special checker but has no checker source");
+        }
+        String fingerprint = SourceFingerprint.of(source, "JAVA");
+        LoadedChecker loaded = checkers.get(problem.getId());
+        if (loaded != null && loaded.fingerprint().equals(fingerprint)) {
+            return loaded.check();
+        }
+
+        Method check;
+        try (CompiledArtifact artifact = javaSourceCompiler.compile(source, CHECKER_CLASS)) {
+            ClassLoader loader = new SubmissionClassLoader(artifact.getClassFiles());
+            check = loader.loadClass(CHECKER_CLASS).getMethod("check", String.class, String.class, String.class);
+        } catch (CompilationException e) {
+            throw new IllegalStateException("Checker of problem " + problem.getId() + " does not compile:\n" + e.getMessage());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Checker of problem " + problem.getId() + " has no usable check method", e);
+        }
+        if (!Modifier.isStatic(check.getModifiers()) || check.getReturnType() != boolean.class) {
+            throw new IllegalStateException("Checker.check of problem " + problem.getId() + " must be static and return boolean");
+        }
+        checkers.put(problem.getId(), new LoadedChecker(fingerprint, check));
+        log.info("Loaded special checker for problem {}", problem.getId());
+        return check;
+    }
+
+    public interface PerTest {
+        OutputComparator create(byte[] input, byte[] expectedOutput);
+    }
+
+    private record LoadedChecker(String fingerprint, Method check) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.shodhcode.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Consumes a test run's stdout as it is produced: enforces the output size limit, feeds the
+ * incremental comparator and keeps a short prefix for WRONG_ANSWER feedback.
+ */
+public class OutputSink {
+    private final OutputComparator comparator;
+    private final long limitBytes;
+    private final int previewBytes;
+    private final ByteArrayOutputStream preview = new ByteArrayOutputStream();
+    private long totalBytes;
+    private boolean limitExceeded;
+
+    public OutputSink(OutputComparator comparator, long limitBytes, int previewBytes) {
+        this.comparator = comparator;
+        this.limitBytes = limitBytes;
+        this.previewBytes = previewBytes;
+    }
+
+    /**
+     * @return false once the output limit has been exceeded; the producer should then be stopped
+     */
+    public synchronized boolean write(byte[] buffer, int offset, int length) {
+        if (limitExceeded) {
+            return false;
+        }
+        totalBytes += length;
+        if (totalBytes > limitBytes) {
+            limitExceeded = true;
+            return false;
+        }
+        comparator.feed(buffer, offset, length);
+        int keep = Math.min(length, previewBytes - preview.size());
+        if (keep > 0) {
+            preview.write(buffer, offset, keep);
+        }
+        return true;
+    }
+
+    public synchronized void markLimitExceeded() {
+        limitExceeded = true;
+    }
+
+    public synchronized boolean isLimitExceeded() {
+        return limitExceeded;
+    }
+
+    public synchronized boolean matches() {
+        return !limitExceeded && comparator.matches();
+    }
+
+    public synchronized String getPreview() {
+        return preview.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,248 @@
+package com.shodhcode.service;
+
+import com.shodhcode.config.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a submission as a child process. Stdin is fed and stdout/stderr are drained on dedicated
+ * I/O threads while the process runs, so a chatty program can never block on a full pipe. Stdout
+ * goes straight into an {@link OutputSink}; the process is killed once it exceeds the output limit.
+ * CPU time and peak RSS are measured through {@link ProcessSampler} while the process runs, and
+ * taken from the kernel through the {@link UsageLauncher} once it exits. Commands run inside a slot
+ * of the {@link SandboxPool}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessRunner {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int STDERR_LIMIT_BYTES = 64 * 1024;
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+    private static final long DRAIN_GRACE_MILLIS = 1000;
+
+    private final SandboxPool sandboxPool;
+    private final VirtualThreads virtualThreads;
+    private final UsageLauncher usageLauncher;
+
+    private ExecutorService ioThreads;
+
+    /**
+     * Every run parks three threads on pipes, which is what virtual threads are for.
+     */
+    @PostConstruct
+    void start() {
+        if (virtualThreads.isEnabled()) {
+            ioThreads = virtualThreads.newPerTaskExecutor("judge-io-");
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        ioThreads = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "judge-io-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        ioThreads.shutdownNow();
+    }
+
+    /**
+     * Runs the command in a sandbox slot until it exits, exceeds the wall-clock limit or exceeds the
+     * memory limit. While it runs the process is sampled every few milliseconds for CPU time and peak
+     * RSS, and the launcher's figures at exit cover what happened after the last sample; a backend
+     * that is not measured that way enforces the memory limit itself and reports when
+     * it killed the run for it. Time spent waiting for a free slot does not count towards the limit.
+     */
+    public ProcessResult run(List<String> command, Path workingDirectory, byte[] input, OutputSink stdout,
+                             long timeLimitMillis, long memoryLimitKb, ExecutionControl control) throws Exception {
+        SandboxBackend backend = sandboxPool.getBackend();
+        SandboxSlot slot = sandboxPool.acquire(control);
+        try (UsageLauncher.Report report = usageLauncher.isEnabled() && backend.isMeasured()
+                ? usageLauncher.newReport() : null) {
+            backend.prepare(workingDirectory, memoryLimitKb, slot);
+            List<String> measured = report != null ? report.wrap(command) : command;
+            ProcessBuilder builder = new ProcessBuilder(backend.wrap(measured, workingDirectory, slot));
+            builder.directory(workingDirectory.toFile());
+            long start = System.nanoTime();
+            Process process = builder.start();
+            ProcessResult result = supervise(process, start, new ProcessSampler(process.toHandle()), report, null,
+                    input, stdout, timeLimitMillis, memoryLimitKb, control);
+            if (result.exitCode() != 0 && !result.timedOut() && !result.memoryLimitExceeded()
+                    && backend.wasOutOfMemory(slot)) {
+                return new ProcessResult(-1, result.stderr(), false, true, result.wallMillis(), result.cpuMillis(),
+                        result.peakRssKb());
+            }
+            return result;
+        } finally {
+            sandboxPool.release(slot);
+        }
+    }
+
+    /**
+     * Like {@link #run(List, Path, byte[], OutputSink, long, long, ExecutionControl)} for a process
+     * that was started ahead of time and is waiting on stdin, such as a pooled interpreter, and
+     * through the launcher when it has a report. The prefix is written to stdin before the input; CPU
+     * time the process spent before the hand-off is not counted.
+     */
+    public ProcessResult run(Process process, UsageLauncher.Report report, byte[] stdinPrefix, byte[] input, OutputSink stdout,
+                             long timeLimitMillis, long memoryLimitKb, ExecutionControl control) throws Exception {
+        ProcessSampler sampler = new ProcessSampler(process.toHandle());
+        sampler.sample();
+        sampler.startCpuClock();
+        return supervise(process, System.nanoTime(), sampler, report, stdinPrefix, input, stdout, timeLimitMillis,
+                memoryLimitKb, control);
+    }
+
+    private ProcessResult supervise(Process process, long start, ProcessSampler sampler, UsageLauncher.Report report,
+                                    byte[] stdinPrefix, byte[] input, OutputSink stdout, long timeLimitMillis, long memoryLimitKb,
+                                    ExecutionControl control) throws Exception {
+        ExecutionControl.Registration abort = control.onCancel(() -> destroyTree(process));
+
+        Future<?> stdinFeeder = ioThreads.submit(() -> feed(process, stdinPrefix, input));
+        Future<?> stdoutDrain = ioThreads.submit(() -> drain(process, stdout));
+        Future<byte[]> stderrDrain = ioThreads.submit(() -> drainCapped(process));
+
+        boolean timedOut = false;
+        boolean memoryLimitExceeded = false;
+        try {
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+            while (!process.waitFor(SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                sampler.sample();
+                if (sampler.getPeakRssKb() > memoryLimitKb) {
+                    memoryLimitExceeded = true;
+                    break;
+                }
+                if (System.nanoTime() >= deadline) {
+                    timedOut = true;
+                    break;
+                }
+            }
+            long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (timedOut || memoryLimitExceeded) {
+                destroyTree(process);
+            }
+            process.waitFor();
+            if (report != null && !timedOut && !memoryLimitExceeded) {
+                // A run that exits between two samples, or peaks just before it does, is only caught here
+                report.read().ifPresent(usage -> sampler.recordExit(usage.cpuMillis(), usage.peakRssKb()));
+                memoryLimitExceeded = sampler.getPeakRssKb() > memoryLimitKb;
+            }
+            // Killing the process closes its pipes and drops whatever the drains have not read yet, so
+            // a program that exited gets its output collected first. The grace only runs out when a
+            // leftover child still holds a pipe open, or when the drain thread has not been scheduled.
+            awaitDrain(stdoutDrain);
+            awaitDrain(stderrDrain);
+            destroyTree(process);
+            // A drain still blocked on a pipe an orphaned child holds open is left behind; it stops
+            // writing and ends once that child exits
+            collect(stdoutDrain, null);
+            byte[] stderr = collect(stderrDrain, new byte[0]);
+
+            return new ProcessResult(timedOut || memoryLimitExceeded ? -1 : process.exitValue(),
+                    new String(stderr, StandardCharsets.UTF_8), timedOut, memoryLimitExceeded,
+                    wallMillis, sampler.getCpuMillis(), sampler.getPeakRssKb());
+        } finally {
+            abort.close();
+            destroyTree(process);
+            stdinFeeder.cancel(true);
+        }
+    }
+
+    /**
+     * Kills the process together with the children it still has. Children that were already
+     * orphaned are out of reach here; the unshare and docker sandboxes take care of those.
+     */
+    private static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static void awaitDrain(Future<?> drain) throws InterruptedException {
+        try {
+            drain.get(DRAIN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Reported, or cut short by the kill, when the result is collected
+        }
+    }
+
+    private static <T> T collect(Future<T> drain, T whenCut) throws Exception {
+        if (!drain.isDone()) {
+            drain.cancel(true);
+            return whenCut;
+        }
+        return drain.get();
+    }
+
+    private void feed(Process process, byte[] prefix, byte[] input) {
+        try (OutputStream stdin = process.getOutputStream()) {
+            if (prefix != null) {
+                stdin.write(prefix);
+            }
+            for (int offset = 0; offset < input.length; offset += BUFFER_SIZE) {
+                stdin.write(input, offset, Math.min(BUFFER_SIZE, input.length - offset));
+            }
+        } catch (IOException e) {
+            // The program exited or closed stdin without reading all of its input
+            log.trace("Stopped feeding stdin: {}", e.getMessage());
+        }
+    }
+
+    private Void drain(Process process, OutputSink sink) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = process.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1 && !Thread.currentThread().isInterrupted()) {
+                if (!sink.write(buffer, 0, read)) {
+                    destroyTree(process);
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throwUnlessKilled(process, e);
+        }
+        return null;
+    }
+
+    private byte[] drainCapped(Process process) throws IOException {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream stream = process.getErrorStream()) {
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                int keep = Math.min(read, STDERR_LIMIT_BYTES - captured.size());
+                if (keep > 0) {
+                    captured.write(buffer, 0, keep);
+                }
+            }
+        } catch (IOException e) {
+            throwUnlessKilled(process, e);
+        }
+        return captured.toByteArray();
+    }
+
+    /**
+     * Killing a process closes its pipes under a drain that is still reading; that ends the output.
+     */
+    private static void throwUnlessKilled(Process process, IOException e) throws IOException {
+        if (process.isAlive()) {
+            throw e;
+        }
+        log.trace("Pipe closed after the process ended: {}", e.getMessage());
+    }
+
+    public record ProcessResult(int exitCode, String stderr, boolean timedOut, boolean memoryLimitExceeded,
+                                long wallMillis, long cpuMillis, long peakRssKb) {
+    }
+}
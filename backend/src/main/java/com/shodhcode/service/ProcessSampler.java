@@ -0,0 +1,83 @@
+package com.shodhcode.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks CPU time and peak resident set size of a running process and the processes it started
+ * from /proc, so a program run through a wrapper such as a sandbox launcher is measured rather than
+ * the wrapper alone. The values of the last sample taken before the process exits are kept, so
+ * callers should sample while it runs and, where they have them, add the kernel's figures from
+ * when it exited with {@link #recordExit}. On systems without /proc both measurements stay at 0
+ * unless the exit figures are recorded.
+ */
+public class ProcessSampler {
+    private final ProcessHandle process;
+    private long cpuMillis;
+    private long cpuBaselineMillis;
+    private long peakRssKb;
+
+    public ProcessSampler(ProcessHandle process) {
+        this.process = process;
+    }
+
+    public void sample() {
+        long treeCpuMillis = 0;
+        long treeRssKb = 0;
+        for (ProcessHandle handle : tree()) {
+            // utime + stime from /proc/<pid>/stat, already converted from clock ticks by the JDK
+            treeCpuMillis += handle.info().totalCpuDuration().map(Duration::toMillis).orElse(0L);
+            treeRssKb += peakRssKb(handle);
+        }
+        cpuMillis = Math.max(cpuMillis, treeCpuMillis);
+        peakRssKb = Math.max(peakRssKb, treeRssKb);
+    }
+
+    /**
+     * Merges the CPU time and peak RSS the kernel accounted for the process when it exited.
+     */
+    public void recordExit(long exitCpuMillis, long exitPeakRssKb) {
+        cpuMillis = Math.max(cpuMillis, exitCpuMillis);
+        peakRssKb = Math.max(peakRssKb, exitPeakRssKb);
+    }
+
+    private List<ProcessHandle> tree() {
+        List<ProcessHandle> tree = new ArrayList<>();
+        tree.add(process);
+        process.descendants().forEach(tree::add);
+        return tree;
+    }
+
+    private static long peakRssKb(ProcessHandle handle) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(handle.pid()), "status"))) {
+                // VmHWM is the kernel's own peak-RSS high-water mark, so short spikes between samples are not lost
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring("VmHWM:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The process has exited or /proc is unavailable
+        }
+        return 0;
+    }
+
+    /**
+     * Counts CPU time from the last sample on, for processes that ran before the measured work began.
+     */
+    public void startCpuClock() {
+        cpuBaselineMillis = cpuMillis;
+    }
+
+    public long getCpuMillis() {
+        return cpuMillis - cpuBaselineMillis;
+    }
+
+    public long getPeakRssKb() {
+        return peakRssKb;
+    }
+}
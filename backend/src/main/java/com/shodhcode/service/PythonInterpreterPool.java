@@ -0,0 +1,164 @@
+package com.shodhcode.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Keeps a few Python interpreters started and blocked on stdin, so a test run does not wait for
+ * interpreter startup. Each interpreter runs exactly one script and exits; a replacement is
+ * started in the background as soon as one is handed out. When the pool is empty an interpreter
+ * is started on demand. Pooled interpreters run on the host, so the pool stays empty when
+ * submissions are sandboxed. They are started through the {@link UsageLauncher} when it is
+ * available, so a script that finishes between two samples is still measured.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PythonInterpreterPool {
+    // Reads the script path byte by byte so no input is buffered away from the script's own stdin,
+    // and leaves its own frame out of tracebacks
+    private static final String BOOTSTRAP = String.join("\n",
+            "import os, sys",
+            "line = b''",
+            "while not line.endswith(b'\\n'):",
+            "    chunk = os.read(0, 1)",
+            "    if not chunk:",
+            "        sys.exit(0)",
+            "    line += chunk",
+            "path = line[:-1].decode()",
+            "os.chdir(os.path.dirname(path))",
+            "sys.argv = [path]",
+            "sys.path[0] = os.path.dirname(path)",
+            "del line, chunk",
+            "try:",
+            "    code = compile(open(path, 'rb').read(), path, 'exec')",
+            "    exec(code, {'__name__': '__main__', '__file__': path, '__builtins__': __builtins__})",
+            "except SystemExit:",
+            "    raise",
+            "except BaseException as error:",
+            "    import traceback",
+            "    traceback.print_exception(type(error), error, error.__traceback__.tb_next)",
+            "    sys.exit(1)",
+            "");
+
+    private final SandboxPool sandboxPool;
+    private final UsageLauncher usageLauncher;
+
+    @Value("${judge.lang.python.command:python3}")
+    private String command;
+
+    @Value("${judge.lang.python.pool-size:2}")
+    private int poolSize;
+
+    private final BlockingQueue<Interpreter> idleInterpreters = new LinkedBlockingQueue<>();
+    private final ExecutorService spawner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "python-interpreter-spawner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Path bootstrap;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        Path directory = Files.createTempDirectory("judge_python_");
+        bootstrap = Files.writeString(directory.resolve("bootstrap.py"), BOOTSTRAP, StandardCharsets.UTF_8);
+        for (int i = 0; i < poolSize; i++) {
+            spawnReplacement();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        spawner.shutdownNow();
+        Interpreter interpreter;
+        while ((interpreter = idleInterpreters.poll()) != null) {
+            interpreter.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return !sandboxPool.isIsolated();
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * An interpreter waiting for a script path on stdin. The caller owns it and closes it when done.
+     */
+    public Interpreter acquire() throws IOException {
+        Interpreter interpreter;
+        while ((interpreter = idleInterpreters.poll()) != null) {
+            spawnReplacement();
+            if (interpreter.process().isAlive()) {
+                return interpreter;
+            }
+            interpreter.close();
+        }
+        spawnReplacement();
+        return start();
+    }
+
+    private void spawnReplacement() {
+        if (poolSize <= 0) {
+            return;
+        }
+        spawner.execute(() -> {
+            if (idleInterpreters.size() >= poolSize) {
+                return;
+            }
+            try {
+                idleInterpreters.add(start());
+            } catch (IOException e) {
+                log.error("Failed to start Python interpreter", e);
+            }
+        });
+    }
+
+    private Interpreter start() throws IOException {
+        UsageLauncher.Report usage = usageLauncher.isEnabled() ? usageLauncher.newReport() : null;
+        List<String> interpreter = List.of(command, bootstrap.toString());
+        ProcessBuilder builder = new ProcessBuilder(usage != null ? usage.wrap(interpreter) : interpreter);
+        builder.directory(bootstrap.getParent().toFile());
+        try {
+            return new Interpreter(builder.start(), usage);
+        } catch (IOException e) {
+            if (usage != null) {
+                usage.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A started interpreter and, when it runs under the launcher, the report of what it used.
+     */
+    public record Interpreter(Process process, UsageLauncher.Report usage) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            if (usage != null) {
+                usage.close();
+            }
+        }
+    }
+}
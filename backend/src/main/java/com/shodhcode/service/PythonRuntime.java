@@ -0,0 +1,66 @@
+package com.shodhcode.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Python submissions: the "compile" step only stores the script, and each test runs it in an
+ * interpreter taken from {@link PythonInterpreterPool}, which has already paid the startup cost.
+ * When submissions are sandboxed the script runs in a fresh interpreter inside the sandbox instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class PythonRuntime implements LanguageRuntime {
+    private static final String SCRIPT_FILE = "solution.py";
+
+    private final PythonInterpreterPool interpreterPool;
+    private final ProcessRunner processRunner;
+
+    @Value("${judge.lang.python.time-multiplier:3.0}")
+    private double timeMultiplier;
+
+    @Override
+    public String getLanguage() {
+        return "PYTHON";
+    }
+
+    @Override
+    public double getTimeMultiplier() {
+        return timeMultiplier;
+    }
+
+    @Override
+    public CompiledArtifact compile(String code) throws IOException {
+        Path tempDir = Files.createTempDirectory("judge_");
+        Files.write(tempDir.resolve(SCRIPT_FILE), code.getBytes(StandardCharsets.UTF_8));
+        return CompiledArtifact.inDirectory(SCRIPT_FILE, tempDir);
+    }
+
+    @Override
+    public RunOutcome run(CompiledArtifact artifact, byte[] input, OutputSink stdout, ResourceLimits limits,
+                          ExecutionControl control) throws Exception {
+        if (!interpreterPool.isEnabled()) {
+            ProcessRunner.ProcessResult result = processRunner.run(
+                    List.of(interpreterPool.getCommand(), artifact.getMainClass()), artifact.getDirectory(), input,
+                    stdout, limits.timeMillis(), limits.memoryMb() * 1024, control);
+            return new RunOutcome(result.exitCode(), result.stderr(), result.timedOut(),
+                    result.memoryLimitExceeded(), result.cpuMillis(), result.wallMillis(), result.peakRssKb());
+        }
+        Path script = artifact.getDirectory().resolve(artifact.getMainClass()).toAbsolutePath();
+        // The interpreter reads the script path from the first line of stdin, then runs it on the rest
+        byte[] header = (script + "\n").getBytes(StandardCharsets.UTF_8);
+        ProcessRunner.ProcessResult result;
+        try (PythonInterpreterPool.Interpreter interpreter = interpreterPool.acquire()) {
+            result = processRunner.run(interpreter.process(), interpreter.usage(), header, input, stdout,
+                    limits.timeMillis(), limits.memoryMb() * 1024, control);
+        }
+        return new RunOutcome(result.exitCode(), result.stderr(), result.timedOut(), result.memoryLimitExceeded(),
+                result.cpuMillis(), result.wallMillis(), result.peakRssKb());
+    }
+}
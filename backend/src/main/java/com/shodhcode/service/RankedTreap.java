@@ -0,0 +1,179 @@
+package com.shodhcode.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An order-statistic set: a treap whose nodes track subtree sizes, so insert, remove, rank lookup
+ * and access by rank all take O(log n) expected time. Elements must not change their ordering
+ * while they are in the set; remove and re-insert instead. Not thread-safe.
+ */
+public class RankedTreap<T> {
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    public RankedTreap(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public void add(T value) {
+        root = insert(root, new Node<>(value));
+    }
+
+    public void remove(T value) {
+        root = delete(root, value);
+    }
+
+    /**
+     * Zero-based position of the value in sort order, or -1 when it is not in the set.
+     */
+    public int rank(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    public T get(int index) {
+        Node<T> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+        throw new IndexOutOfBoundsException("No element at rank " + index);
+    }
+
+    /**
+     * Up to {@code limit} elements in sort order starting at rank {@code offset}.
+     */
+    public List<T> range(int offset, int limit) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        collect(root, offset, offset + limit, 0, result);
+        return result;
+    }
+
+    private void collect(Node<T> node, int from, int to, int base, List<T> out) {
+        if (node == null || base >= to || base + node.size <= from) {
+            return;
+        }
+        int position = base + size(node.left);
+        collect(node.left, from, to, base, out);
+        if (position >= from && position < to) {
+            out.add(node.value);
+        }
+        collect(node.right, from, to, position + 1, out);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (comparator.compare(fresh.value, node.value) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> delete(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = delete(node.left, value);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node<T> {
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        Node(T value) {
+            this.value = value;
+        }
+
+        void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
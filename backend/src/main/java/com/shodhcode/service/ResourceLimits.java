@@ -0,0 +1,7 @@
+package com.shodhcode.service;
+
+/**
+ * Limits applied to one test run: wall-clock time in milliseconds and memory in megabytes.
+ */
+public record ResourceLimits(long timeMillis, long memoryMb) {
+}
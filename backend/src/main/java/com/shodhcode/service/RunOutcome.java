@@ -0,0 +1,9 @@
+package com.shodhcode.service;
+
+/**
+ * What a {@link LanguageRuntime} observed while running one test. Stdout went to the test's
+ * {@link OutputSink}; CPU time is in milliseconds and memory is the peak in kilobytes.
+ */
+public record RunOutcome(int exitCode, String stderr, boolean timedOut, boolean memoryLimitExceeded,
+                         long cpuMillis, long wallMillis, long memoryKb) {
+}
@@ -0,0 +1,62 @@
+package com.shodhcode.service;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Isolates forked test runs. {@link SandboxPool} selects the backend named by judge.sandbox.backend,
+ * prepares its slots once at startup and resets a slot after every run, so sandboxes are reused
+ * rather than created per run.
+ */
+public interface SandboxBackend {
+    String getName();
+
+    /**
+     * Whether runs are isolated from the host. Host-level fast paths (warm JVMs, pre-started
+     * interpreters) are only used when they are not.
+     */
+    boolean isIsolated();
+
+    /**
+     * Whether the process ProcessRunner starts is the submission itself, so sampling it measures the
+     * run's CPU time and memory. When it is not, those are unknown and never recorded, and the
+     * memory limit is whatever the backend enforces in {@link #prepare}.
+     */
+    default boolean isMeasured() {
+        return true;
+    }
+
+    /**
+     * The command that runs {@code command} in the slot's sandbox with the given working directory.
+     * The returned command is started in that directory on the host.
+     */
+    List<String> wrap(List<String> command, Path workingDirectory, SandboxSlot slot);
+
+    default void start(List<SandboxSlot> slots) throws Exception {
+    }
+
+    /**
+     * Called before a run's wrapped command starts, to make its working directory available inside
+     * the slot's sandbox and apply the run's memory limit there. Backends that share the host's file
+     * system and are measured by sampling have nothing to do.
+     */
+    default void prepare(Path workingDirectory, long memoryLimitKb, SandboxSlot slot) throws Exception {
+    }
+
+    /**
+     * Called after a run in the slot exited abnormally: whether the sandbox killed it for exceeding
+     * the memory limit set in {@link #prepare}.
+     */
+    default boolean wasOutOfMemory(SandboxSlot slot) throws Exception {
+        return false;
+    }
+
+    /**
+     * Called after every run in the slot, before the slot is handed out again.
+     */
+    default void reset(SandboxSlot slot) {
+    }
+
+    default void stop(List<SandboxSlot> slots) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.shodhcode.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out the slots forked test runs execute in. There is one slot per CPU in judge.sandbox.cpus
+ * (all CPUs when empty) unless judge.sandbox.slots says otherwise; with pinning enabled a slot only
+ * ever runs on its own CPU, so concurrent runs do not steal each other's time slices. Listing only
+ * some CPUs keeps the rest free for the web server.
+ */
+@Service
+@Slf4j
+public class SandboxPool {
+    private final List<SandboxBackend> backends;
+
+    @Value("${judge.sandbox.backend:host}")
+    private String backendName;
+
+    @Value("${judge.sandbox.cpus:}")
+    private String cpuList;
+
+    @Value("${judge.sandbox.slots:0}")
+    private int configuredSlots;
+
+    @Value("${judge.sandbox.pin-cpus:false}")
+    private boolean pinCpus;
+
+    private SandboxBackend backend;
+    private final List<SandboxSlot> slots = new ArrayList<>();
+    private final BlockingQueue<SandboxSlot> idleSlots = new LinkedBlockingQueue<>();
+
+    public SandboxPool(List<SandboxBackend> backends) {
+        this.backends = backends;
+    }
+
+    @PostConstruct
+    void init() throws Exception {
+        backend = backends.stream()
+                .filter(candidate -> candidate.getName().equals(backendName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown judge.sandbox.backend: " + backendName));
+        List<Integer> cpus = parseCpuList(cpuList);
+        int slotCount = configuredSlots > 0 ? configuredSlots : cpus.size();
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new SandboxSlot(i, pinCpus ? cpus.get(i % cpus.size()) : null));
+        }
+        backend.start(slots);
+        idleSlots.addAll(slots);
+        log.info("Sandbox backend {} with {} slots on CPUs {}", backendName, slotCount, pinCpus ? cpus : "unpinned");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backend.stop(slots);
+    }
+
+    public SandboxBackend getBackend() {
+        return backend;
+    }
+
+    public boolean isIsolated() {
+        return backend.isIsolated();
+    }
+
+    public boolean isMeasured() {
+        return backend.isMeasured();
+    }
+
+    /**
+     * Waits for a free slot; gives up once the run is cancelled.
+     */
+    public SandboxSlot acquire(ExecutionControl control) throws InterruptedException {
+        while (true) {
+            SandboxSlot slot = idleSlots.poll(50, TimeUnit.MILLISECONDS);
+            if (slot != null) {
+                return slot;
+            }
+            if (control.isCancelled()) {
+                throw new CancellationException("Test run cancelled");
+            }
+        }
+    }
+
+    public void release(SandboxSlot slot) {
+        backend.reset(slot);
+        idleSlots.add(slot);
+    }
+
+    /**
+     * Parses a Linux CPU list such as "2-5,7"; an empty list means every available CPU.
+     */
+    static List<Integer> parseCpuList(String list) {
+        List<Integer> cpus = new ArrayList<>();
+        if (list == null || list.isBlank()) {
+            for (int cpu = 0; cpu < Runtime.getRuntime().availableProcessors(); cpu++) {
+                cpus.add(cpu);
+            }
+            return cpus;
+        }
+        for (String part : list.split(",")) {
+            String[] range = part.trim().split("-");
+            int from = Integer.parseInt(range[0].trim());
+            int to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+            for (int cpu = from; cpu <= to; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return cpus;
+    }
+}
@@ -0,0 +1,8 @@
+package com.shodhcode.service;
+
+/**
+ * One place a submission can run at a time. A slot owns a CPU when pinning is enabled and, for
+ * the docker backend, a long-lived container.
+ */
+public record SandboxSlot(int index, Integer cpu) {
+}
@@ -0,0 +1,55 @@
+package com.shodhcode.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content hashes used to recognise resubmissions of the same program. Java sources are normalised
+ * first: line endings become \n, trailing whitespace is stripped from every line and trailing
+ * blank lines are dropped. None of that changes what javac produces, since text blocks strip
+ * trailing whitespace and unify line endings themselves. Every other language is hashed as
+ * submitted: a trailing space or \r inside a Python string or a C++ raw string literal is part of
+ * the program, and so is what follows a line-continuation backslash.
+ */
+public final class SourceFingerprint {
+    private SourceFingerprint() {
+    }
+
+    /**
+     * Identifies the compiled program: the same fingerprint means the same bytecode or script.
+     */
+    public static String of(String code, String language) {
+        return sha256(language + '\0' + ("JAVA".equals(language) ? normalise(code) : code));
+    }
+
+    /**
+     * Identifies a verdict: the program judged against one version of a problem's tests.
+     */
+    public static String verdictKey(String sourceFingerprint, Long problemId, long testSetVersion) {
+        return sha256(sourceFingerprint + '\0' + problemId + '\0' + testSetVersion);
+    }
+
+    static String normalise(String code) {
+        StringBuilder normalised = new StringBuilder(code.length());
+        for (String line : code.split("\r\n|\r|\n")) {
+            normalised.append(line.stripTrailing()).append('\n');
+        }
+        int end = normalised.length();
+        while (end > 0 && normalised.charAt(end - 1) == '\n') {
+            end--;
+        }
+        normalised.setLength(end);
+        return normalised.toString();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
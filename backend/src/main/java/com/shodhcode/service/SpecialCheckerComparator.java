@@ -0,0 +1,63 @@
+package com.shodhcode.service;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands the complete output to a problem's own checker (see {@link OutputComparatorFactory}). The
+ * output is buffered, as checkers need all of it at once; the judge's output limit bounds it. The
+ * checker runs on a thread of its own and has a time limit; a checker that fails or runs out of
+ * time is a judge error, never a verdict on the submission.
+ */
+public class SpecialCheckerComparator implements OutputComparator {
+    private final Method check;
+    private final byte[] input;
+    private final byte[] expected;
+    private final ExecutorService checkerThreads;
+    private final long timeLimitMillis;
+    private final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+    public SpecialCheckerComparator(Method check, byte[] input, byte[] expected, ExecutorService checkerThreads,
+                                    long timeLimitMillis) {
+        this.check = check;
+        this.input = input;
+        this.expected = expected;
+        this.checkerThreads = checkerThreads;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    @Override
+    public void feed(byte[] buffer, int offset, int length) {
+        actual.write(buffer, offset, length);
+    }
+
+    @Override
+    public boolean matches() {
+        Future<Boolean> accepted = checkerThreads.submit(() -> (Boolean) check.invoke(null,
+                new String(input, StandardCharsets.UTF_8), new String(expected, StandardCharsets.UTF_8),
+                actual.toString(StandardCharsets.UTF_8)));
+        try {
+            return accepted.get(timeLimitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Only interrupts the checker; one that ignores it keeps its thread until it returns
+            accepted.cancel(true);
+            throw new IllegalStateException("Checker did not finish within " + timeLimitMillis + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InvocationTargetException failed) {
+                throw new IllegalStateException("Checker failed: " + failed.getCause(), failed.getCause());
+            }
+            throw new IllegalStateException("Checker is not accessible", e.getCause());
+        } catch (InterruptedException e) {
+            accepted.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the checker", e);
+        }
+    }
+}
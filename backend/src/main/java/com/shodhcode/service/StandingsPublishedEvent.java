@@ -0,0 +1,9 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.StandingsSnapshot;
+
+/**
+ * Published when a contest's leaderboard starts being served from a snapshot of the given kind.
+ */
+public record StandingsPublishedEvent(Long contestId, StandingsSnapshot.Kind kind) {
+}
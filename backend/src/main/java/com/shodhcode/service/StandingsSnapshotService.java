@@ -0,0 +1,200 @@
+package com.shodhcode.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shodhcode.dto.ContestLeaderboardEntry;
+import com.shodhcode.entity.Contest;
+import com.shodhcode.entity.StandingsSnapshot;
+import com.shodhcode.entity.Submission;
+import com.shodhcode.repository.ContestRepository;
+import com.shodhcode.repository.StandingsSnapshotRepository;
+import com.shodhcode.repository.SubmissionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Materialises contest standings into immutable snapshots. A FROZEN snapshot is taken when the
+ * scoreboard freeze starts (leaderboard.freeze-minutes before the end) and a FINAL one once the
+ * contest is COMPLETED and none of its submissions are still waiting for a verdict. From then on the
+ * leaderboard is served from the snapshot, which is the same on every node and carries an ETag.
+ * Snapshots are kept in memory once published, so serving them does not touch the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandingsSnapshotService {
+    private static final List<Submission.SubmissionStatus> UNFINISHED =
+            List.of(Submission.SubmissionStatus.PENDING, Submission.SubmissionStatus.JUDGING);
+    private static final TypeReference<List<ContestLeaderboardEntry>> ENTRIES = new TypeReference<>() {
+    };
+
+    private final StandingsSnapshotRepository snapshotRepository;
+    private final ContestRepository contestRepository;
+    private final SubmissionRepository submissionRepository;
+    private final LeaderboardService leaderboardService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${leaderboard.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${leaderboard.snapshot.poll-ms:10000}")
+    private long pollMillis;
+
+    @Value("${leaderboard.freeze-minutes:0}")
+    private long freezeMinutes;
+
+    private final Map<Long, PublishedStandings> published = new ConcurrentHashMap<>();
+    private ScheduledExecutorService materialiser;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        materialiser = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "standings-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        materialiser.scheduleWithFixedDelay(this::materialiseDue, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (materialiser != null) {
+            materialiser.shutdownNow();
+        }
+    }
+
+    /**
+     * The snapshot the contest's leaderboard is served from, if it is frozen or final.
+     */
+    public Optional<PublishedStandings> published(Long contestId) {
+        return Optional.ofNullable(published.get(contestId));
+    }
+
+    void materialiseDue() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Contest contest : contestRepository.findAll()) {
+                PublishedStandings current = published.get(contest.getId());
+                if (current != null && current.kind() == StandingsSnapshot.Kind.FINAL) {
+                    continue;
+                }
+                if (contest.getStatus() == Contest.ContestStatus.COMPLETED) {
+                    publish(contest, StandingsSnapshot.Kind.FINAL);
+                } else if (current == null && isFrozen(contest, now)) {
+                    publish(contest, StandingsSnapshot.Kind.FROZEN);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to materialise standings snapshots", e);
+        }
+    }
+
+    private boolean isFrozen(Contest contest, LocalDateTime now) {
+        return freezeMinutes > 0 && !now.isBefore(contest.getEndTime().minusMinutes(freezeMinutes));
+    }
+
+    /**
+     * Publishes the stored snapshot of this kind, taking it first if no node has yet.
+     */
+    private void publish(Contest contest, StandingsSnapshot.Kind kind) throws Exception {
+        StandingsSnapshot snapshot = stored(contest.getId(), kind).orElse(null);
+        if (snapshot == null) {
+            snapshot = take(contest, kind);
+        }
+        if (snapshot != null) {
+            published.put(contest.getId(), toPublished(snapshot));
+            eventPublisher.publishEvent(new StandingsPublishedEvent(contest.getId(), kind));
+        }
+    }
+
+    private Optional<StandingsSnapshot> stored(Long contestId, StandingsSnapshot.Kind kind) {
+        return snapshotRepository.findByContestId(contestId).stream()
+                .filter(snapshot -> snapshot.getKind() == kind)
+                .findFirst();
+    }
+
+    private StandingsSnapshot take(Contest contest, StandingsSnapshot.Kind kind) throws Exception {
+        List<ContestLeaderboardEntry> entries;
+        if (kind == StandingsSnapshot.Kind.FINAL) {
+            if (submissionRepository.existsByContestIdAndStatusIn(contest.getId(), UNFINISHED)) {
+                log.debug("Contest {} still has submissions being judged, final standings wait", contest.getId());
+                return null;
+            }
+            // Rebuilt from the submissions table rather than this node's standings, which may still
+            // be waiting for the last relayed verdicts
+            entries = leaderboardService.rebuild(contest).page(0, Integer.MAX_VALUE);
+        } else {
+            // The standings as they are being broadcast, so the frozen board matches what clients last saw
+            entries = leaderboardService.standings(contest.getId())
+                    .map(standings -> standings.page(0, Integer.MAX_VALUE))
+                    .orElse(List.of());
+        }
+        String json = objectMapper.writeValueAsString(entries);
+        StandingsSnapshot snapshot = StandingsSnapshot.builder()
+                .contestId(contest.getId())
+                .kind(kind)
+                .takenAt(LocalDateTime.now())
+                .entryCount(entries.size())
+                .etag(etag(json))
+                .entries(json)
+                .build();
+        try {
+            snapshot = snapshotRepository.save(snapshot);
+            log.info("Took {} standings snapshot of contest {} with {} entries", kind, contest.getId(), entries.size());
+            return snapshot;
+        } catch (DataIntegrityViolationException e) {
+            // Another node took it first; everyone serves that one
+            return stored(contest.getId(), kind).orElse(null);
+        }
+    }
+
+    private PublishedStandings toPublished(StandingsSnapshot snapshot) throws Exception {
+        List<ContestLeaderboardEntry> entries = List.copyOf(objectMapper.readValue(snapshot.getEntries(), ENTRIES));
+        return new PublishedStandings(snapshot.getKind(), snapshot.getEtag(), snapshot.getTakenAt(), entries,
+                entries.stream().collect(Collectors.toMap(ContestLeaderboardEntry::getUserId, Function.identity())));
+    }
+
+    private static String etag(String json) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, 16);
+    }
+
+    public record PublishedStandings(StandingsSnapshot.Kind kind, String etag, LocalDateTime takenAt,
+                                     List<ContestLeaderboardEntry> entries,
+                                     Map<Long, ContestLeaderboardEntry> byUser) {
+        public List<ContestLeaderboardEntry> page(int offset, int limit) {
+            if (offset >= entries.size()) {
+                return List.of();
+            }
+            return entries.subList(offset, Math.min(entries.size(), offset + limit));
+        }
+
+        public Optional<ContestLeaderboardEntry> entryFor(Long userId) {
+            return Optional.ofNullable(byUser.get(userId));
+        }
+    }
+}
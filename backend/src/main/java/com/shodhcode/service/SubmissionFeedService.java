@@ -0,0 +1,139 @@
+package com.shodhcode.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shodhcode.dto.SubmissionExport;
+import com.shodhcode.dto.SubmissionFeedPage;
+import com.shodhcode.dto.SubmissionSummary;
+import com.shodhcode.entity.Submission;
+import com.shodhcode.repository.SubmissionRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A contest's submissions, newest first: keyset pages of summary rows for the live feed, and a
+ * streamed NDJSON export of full rows for admins.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubmissionFeedService {
+    // Matches the fetch size of SubmissionRepository.streamByContestId
+    private static final int EXPORT_BATCH = 500;
+
+    private final SubmissionRepository submissionRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Up to {@code limit} submissions older than {@code before}, or the newest when it is null.
+     */
+    public SubmissionFeedPage page(Long contestId, Cursor before, int limit) {
+        List<SubmissionRepository.FeedRow> rows = before == null
+                ? submissionRepository.findFeed(contestId, Limit.of(limit))
+                : submissionRepository.findFeedBefore(contestId, before.submittedAt(), before.id(), Limit.of(limit));
+        List<SubmissionSummary> entries = rows.stream()
+                .map(row -> SubmissionSummary.builder()
+                        .id(row.getId())
+                        .userId(row.getUserId())
+                        .username(row.getUsername())
+                        .problemId(row.getProblemId())
+                        .status(row.getStatus().toString())
+                        .verdict(row.getVerdict())
+                        .executionTime(row.getExecutionTime())
+                        .memoryUsed(row.getMemoryUsed())
+                        .language(row.getLanguage())
+                        .submittedAt(row.getSubmittedAt())
+                        .build())
+                .collect(Collectors.toList());
+        SubmissionSummary last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        return SubmissionFeedPage.builder()
+                .entries(entries)
+                .nextCursor(entries.size() == limit && last != null
+                        ? new Cursor(last.getSubmittedAt(), last.getId()).toString() : null)
+                .build();
+    }
+
+    /**
+     * Writes every submission of the contest as one JSON object per line, oldest first. Rows are
+     * read through a database cursor and dropped from the persistence context once written, so
+     * memory stays flat however large the contest is.
+     */
+    public void export(Long contestId, OutputStream out) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Submission> submissions = submissionRepository.streamByContestId(contestId)) {
+                int written = 0;
+                for (Submission submission : (Iterable<Submission>) submissions::iterator) {
+                    out.write(objectMapper.writeValueAsBytes(toExport(submission)));
+                    out.write('\n');
+                    if (++written % EXPORT_BATCH == 0) {
+                        entityManager.clear();
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static SubmissionExport toExport(Submission submission) {
+        return SubmissionExport.builder()
+                .id(submission.getId())
+                .contestId(submission.getContest().getId())
+                .userId(submission.getUser().getId())
+                .username(submission.getUser().getUsername())
+                .problemId(submission.getProblem().getId())
+                .problemTitle(submission.getProblem().getTitle())
+                .language(submission.getLanguage())
+                .code(submission.getCode())
+                .status(submission.getStatus().toString())
+                .verdict(submission.getVerdict())
+                .output(submission.getOutput())
+                .error(submission.getError())
+                .executionTime(submission.getExecutionTime())
+                .memoryUsed(submission.getMemoryUsed())
+                .samplesPassed(submission.getSamplesPassed())
+                .samplesTotal(submission.getSamplesTotal())
+                .hiddenPassed(submission.getHiddenPassed())
+                .hiddenTotal(submission.getHiddenTotal())
+                .submittedAt(submission.getSubmittedAt())
+                .build();
+    }
+
+    /**
+     * Position in the feed, written as "submittedAt,id".
+     */
+    public record Cursor(LocalDateTime submittedAt, long id) {
+        public static Cursor parse(String value) {
+            int comma = value.lastIndexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Expected before=submittedAt,id");
+            }
+            try {
+                return new Cursor(LocalDateTime.parse(value.substring(0, comma).trim()),
+                        Long.parseLong(value.substring(comma + 1).trim()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Expected before=submittedAt,id", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return submittedAt + "," + id;
+        }
+    }
+}
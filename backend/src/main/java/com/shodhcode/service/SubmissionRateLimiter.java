@@ -0,0 +1,142 @@
+package com.shodhcode.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for submissions, one per user and one per contest. Each bucket holds up to burst
+ * tokens and refills at per-minute tokens a minute. A bucket is kept as the single timestamp at
+ * which it will be full again (the generic cell rate algorithm), so taking a token is one
+ * compare-and-set and concurrent submitters never lock. Full buckets are dropped to bound memory.
+ */
+@Service
+public class SubmissionRateLimiter {
+    @Value("${judge.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${judge.rate-limit.user.burst:5}")
+    private int userBurst;
+
+    @Value("${judge.rate-limit.user.per-minute:6}")
+    private int userPerMinute;
+
+    @Value("${judge.rate-limit.contest.burst:200}")
+    private int contestBurst;
+
+    @Value("${judge.rate-limit.contest.per-minute:600}")
+    private int contestPerMinute;
+
+    private Buckets userBuckets;
+    private Buckets contestBuckets;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        userBuckets = new Buckets(userBurst, userPerMinute);
+        contestBuckets = new Buckets(contestBurst, contestPerMinute);
+        sweeper.scheduleWithFixedDelay(() -> {
+            userBuckets.dropFull();
+            contestBuckets.dropFull();
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Takes a token from the user's and from the contest's bucket.
+     *
+     * @return 0 when the submission may go ahead, otherwise the milliseconds until it may be retried
+     */
+    public long tryAcquire(Long userId, Long contestId) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long userWait = userBuckets.take(userId, now);
+        if (userWait > 0) {
+            return TimeUnit.NANOSECONDS.toMillis(userWait) + 1;
+        }
+        long contestWait = contestBuckets.take(contestId, now);
+        if (contestWait > 0) {
+            // The contest is saturated; the user's token was not spent on anything
+            userBuckets.giveBack(userId);
+            return TimeUnit.NANOSECONDS.toMillis(contestWait) + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Gives back the tokens of an acquired submission that was not accepted after all.
+     */
+    public void release(Long userId, Long contestId) {
+        if (!enabled) {
+            return;
+        }
+        userBuckets.giveBack(userId);
+        contestBuckets.giveBack(contestId);
+    }
+
+    private static final class Buckets {
+        private final long emissionNanos;
+        private final long toleranceNanos;
+        // Per key, the time at which the bucket is full again
+        private final Map<Long, AtomicLong> fullAt = new ConcurrentHashMap<>();
+
+        Buckets(int burst, int perMinute) {
+            // A refill rate of 0 turns the bucket off
+            this.emissionNanos = perMinute > 0 ? TimeUnit.MINUTES.toNanos(1) / perMinute : 0;
+            this.toleranceNanos = emissionNanos * Math.max(0, burst - 1);
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+         */
+        long take(Long key, long now) {
+            if (emissionNanos == 0 || key == null) {
+                return 0;
+            }
+            AtomicLong bucket = fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = bucket.get();
+                long base = Math.max(current, now);
+                long wait = base - toleranceNanos - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(current, base + emissionNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        void giveBack(Long key) {
+            if (emissionNanos == 0 || key == null) {
+                return;
+            }
+            AtomicLong bucket = fullAt.get(key);
+            if (bucket != null) {
+                bucket.addAndGet(-emissionNanos);
+            }
+        }
+
+        void dropFull() {
+            long now = System.nanoTime();
+            fullAt.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+}
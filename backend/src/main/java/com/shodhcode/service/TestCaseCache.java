@@ -0,0 +1,173 @@
+package com.shodhcode.service;
+
+import com.shodhcode.dto.TestCaseCacheStats;
+import com.shodhcode.entity.TestCase;
+import com.shodhcode.repository.ProblemRepository;
+import com.shodhcode.repository.TestCaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the test data of recently judged problems in memory, already encoded as UTF-8 so it can be
+ * piped into a process as is. The cache is bounded by the total size of the cached inputs and
+ * expected outputs and evicts the least recently used problem first.
+ *
+ * <p>Every write to a problem's test cases bumps its test-set version in the database, in the same
+ * transaction (see {@link TestCaseCacheInvalidator}). Each lookup reads the committed version and
+ * reloads the tests when the cached copy is older, so an edit made on any node reaches the judges
+ * on every other node as soon as it commits. The version is read before the tests, so a copy is
+ * never tagged newer than its contents. Dropping an entry is announced as a
+ * {@link TestCasesChangedEvent} for caches derived from the tests.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TestCaseCache {
+    // Rough per-test bookkeeping on top of the raw bytes
+    private static final long TEST_OVERHEAD_BYTES = 96;
+
+    private final TestCaseRepository testCaseRepository;
+    private final ProblemRepository problemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${judge.tests.cache-bytes:67108864}")
+    private long capacityBytes;
+
+    private final LinkedHashMap<Long, ProblemTests> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * All test cases of the problem in id order, hidden ones included.
+     */
+    public ProblemTests get(Long problemId) {
+        long version = problemRepository.findTestsVersion(problemId);
+        boolean stale;
+        synchronized (this) {
+            ProblemTests cached = entries.get(problemId);
+            // A copy newer than the version just read was loaded after a commit this read missed
+            if (cached != null && cached.version() >= version) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            stale = cached != null;
+        }
+        misses.incrementAndGet();
+        if (stale) {
+            // Changed by another node
+            invalidate(problemId);
+        }
+
+        List<CachedTestCase> tests = new ArrayList<>();
+        for (TestCase testCase : testCaseRepository.findByProblemIdOrderByIdAsc(problemId)) {
+            tests.add(new CachedTestCase(testCase.getId(),
+                    testCase.getInput().getBytes(StandardCharsets.UTF_8),
+                    testCase.getExpectedOutput().getBytes(StandardCharsets.UTF_8),
+                    Boolean.TRUE.equals(testCase.getIsHidden()),
+                    new AtomicLong(testCase.getRejectionCount() != null ? testCase.getRejectionCount() : 0)));
+        }
+        ProblemTests loaded = new ProblemTests(problemId, version, List.copyOf(tests));
+
+        synchronized (this) {
+            ProblemTests current = entries.get(problemId);
+            if ((current == null || current.version() < version) && loaded.sizeBytes() <= capacityBytes) {
+                entries.put(problemId, loaded);
+                cachedBytes += loaded.sizeBytes() - (current != null ? current.sizeBytes() : 0);
+                evictOverflow();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Counts a rejection against the test, both in the cached copy that orders the next judge runs
+     * and in the database so the ordering survives restarts and evictions.
+     */
+    public void recordRejection(CachedTestCase testCase) {
+        testCase.rejections().incrementAndGet();
+        testCaseRepository.incrementRejectionCount(testCase.id());
+    }
+
+    /**
+     * The tests ordered for fail-fast judging: most rejections first, ties in id order.
+     */
+    public static List<CachedTestCase> byRejectionsDescending(List<CachedTestCase> tests) {
+        // Counters keep moving while we sort, so order by a snapshot of them
+        Map<Long, Long> snapshot = tests.stream()
+                .collect(Collectors.toMap(CachedTestCase::id, test -> test.rejections().get()));
+        List<CachedTestCase> ordered = new ArrayList<>(tests);
+        ordered.sort(Comparator.comparing((CachedTestCase test) -> snapshot.get(test.id())).reversed()
+                .thenComparing(CachedTestCase::id));
+        return ordered;
+    }
+
+    /**
+     * Bumps the problem's test-set version in the caller's transaction, so every node drops its
+     * copy of the tests and the verdicts judged against them once the change commits.
+     */
+    public void bumpVersion(Long problemId) {
+        problemRepository.incrementTestsVersion(problemId);
+    }
+
+    /**
+     * Drops this node's copy of the problem's tests.
+     */
+    public void invalidate(Long problemId) {
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            ProblemTests removed = entries.remove(problemId);
+            if (removed != null) {
+                cachedBytes -= removed.sizeBytes();
+            }
+        }
+        eventPublisher.publishEvent(new TestCasesChangedEvent(problemId));
+    }
+
+    public synchronized TestCaseCacheStats getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        return TestCaseCacheStats.builder()
+                .cachedProblems(entries.size())
+                .cachedBytes(cachedBytes)
+                .capacityBytes(capacityBytes)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRatio(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount))
+                .evictions(evictions.get())
+                .invalidations(invalidations.get())
+                .build();
+    }
+
+    private void evictOverflow() {
+        Iterator<ProblemTests> eldest = entries.values().iterator();
+        while (cachedBytes > capacityBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().sizeBytes();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public record CachedTestCase(Long id, byte[] input, byte[] expectedOutput, boolean hidden, AtomicLong rejections) {
+    }
+
+    public record ProblemTests(Long problemId, long version, List<CachedTestCase> tests) {
+        long sizeBytes() {
+            long bytes = 0;
+            for (CachedTestCase test : tests) {
+                bytes += test.input().length + test.expectedOutput().length + TEST_OVERHEAD_BYTES;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.TestCase;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that bumps a problem's test-set version whenever one of its test cases is
+ * written, in the writing transaction, and drops this node's cached copy once the write commits.
+ * Hibernate obtains it from the Spring context, so it can depend on the cache.
+ */
+@Component
+public class TestCaseCacheInvalidator {
+    private final TestCaseCache testCaseCache;
+
+    // Lazy because Hibernate creates the listener while building the entity manager the cache's repository needs
+    public TestCaseCacheInvalidator(@Lazy TestCaseCache testCaseCache) {
+        this.testCaseCache = testCaseCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onWrite(TestCase testCase) {
+        if (testCase.getProblem() == null || testCase.getProblem().getId() == null) {
+            return;
+        }
+        Long problemId = testCase.getProblem().getId();
+        testCaseCache.bumpVersion(problemId);
+        // Other nodes notice the new version on their next lookup; this one can let go of its copy right away
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    testCaseCache.invalidate(problemId);
+                }
+            });
+        } else {
+            testCaseCache.invalidate(problemId);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.shodhcode.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans the test cases of one submission out over a shared pool of test threads.
+ *
+ * <p>A submission gets at most {@code judge.tests.max-parallel} lanes; each lane claims the next
+ * unclaimed test index. As soon as a test fails, lanes stop claiming higher indices and in-flight
+ * tests with a higher index are cancelled. Every test below the failing index still runs to
+ * completion, so the reported failure is always the lowest failing index, as in a sequential run.
+ */
+@Service
+@Slf4j
+public class TestCaseExecutor {
+    @Value("${judge.tests.threads:0}")
+    private int configuredThreads;
+
+    @Value("${judge.tests.max-parallel:4}")
+    private int maxParallelPerSubmission;
+
+    private ExecutorService testThreads;
+
+    @PostConstruct
+    void start() {
+        int threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        testThreads = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "judge-test-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        testThreads.shutdownNow();
+    }
+
+    /**
+     * Runs tests {@code 0..count-1} until the first failure.
+     *
+     * @return the lowest failing index, or {@code count} when every test passed
+     */
+    public int runUntilFirstFailure(int count, TestTask task) throws InterruptedException {
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger firstFailure = new AtomicInteger(count);
+        ExecutionControl[] controls = new ExecutionControl[count];
+
+        Runnable lane = () -> {
+            while (true) {
+                int index = nextIndex.getAndIncrement();
+                if (index >= count || index > firstFailure.get()) {
+                    return;
+                }
+                ExecutionControl control = new ExecutionControl();
+                synchronized (controls) {
+                    controls[index] = control;
+                }
+                if (index > firstFailure.get()) {
+                    return;
+                }
+                boolean passed = task.run(index, control);
+                synchronized (controls) {
+                    // Finished tests are not cancelled; only runs still in flight are
+                    controls[index] = null;
+                }
+                if (!passed && !control.isCancelled()) {
+                    int failure = firstFailure.accumulateAndGet(index, Math::min);
+                    synchronized (controls) {
+                        for (int i = failure + 1; i < count; i++) {
+                            if (controls[i] != null) {
+                                controls[i].cancel();
+                            }
+                        }
+                    }
+                }
+            }
+        };
+
+        // The calling judge worker runs one lane itself, so a submission always makes progress
+        // even when every test thread is busy with other submissions. Helper lanes still queued
+        // once the caller's lane is done have nothing left to claim and are dropped.
+        int lanes = Math.max(1, Math.min(maxParallelPerSubmission, count));
+        LaneGate gate = new LaneGate();
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < lanes; i++) {
+            helpers.add(testThreads.submit(() -> {
+                if (gate.enter()) {
+                    try {
+                        lane.run();
+                    } finally {
+                        gate.leave();
+                    }
+                }
+            }));
+        }
+        lane.run();
+        gate.closeAndAwait();
+        helpers.forEach(helper -> helper.cancel(false));
+        return firstFailure.get();
+    }
+
+    private static class LaneGate {
+        private boolean closed;
+        private int running;
+
+        synchronized boolean enter() {
+            if (closed) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+
+        synchronized void leave() {
+            running--;
+            notifyAll();
+        }
+
+        synchronized void closeAndAwait() throws InterruptedException {
+            closed = true;
+            while (running > 0) {
+                wait();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface TestTask {
+        /**
+         * Runs one test and returns whether it passed. Implementations record their own outcome and
+         * must not throw; a cancelled run may return anything and its result is ignored.
+         */
+        boolean run(int index, ExecutionControl control);
+    }
+}
@@ -0,0 +1,8 @@
+package com.shodhcode.service;
+
+/**
+ * Published when a node drops a problem's cached tests, because they were written there or
+ * because another node bumped their version.
+ */
+public record TestCasesChangedEvent(Long problemId) {
+}
@@ -0,0 +1,62 @@
+package com.shodhcode.service;
+
+/**
+ * Compares program output against the expected output token by token as the output arrives.
+ * Tokens are maximal runs of non-whitespace bytes, so differences in spacing, blank lines and
+ * line endings are ignored. Neither side is ever turned into a String.
+ */
+public class TokenStreamComparator implements OutputComparator {
+    private final byte[] expected;
+    private int expectedPos;
+    private boolean inToken;
+    private boolean mismatch;
+
+    public TokenStreamComparator(byte[] expected) {
+        this.expected = expected;
+    }
+
+    @Override
+    public void feed(byte[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length && !mismatch; i++) {
+            byte b = buffer[i];
+            if (isWhitespace(b)) {
+                if (inToken) {
+                    // The actual token ended, so the expected token must end here too
+                    mismatch = !expectedTokenEnded();
+                    inToken = false;
+                }
+                continue;
+            }
+            if (!inToken) {
+                while (expectedPos < expected.length && isWhitespace(expected[expectedPos])) {
+                    expectedPos++;
+                }
+                inToken = true;
+            }
+            if (expectedPos >= expected.length || expected[expectedPos] != b) {
+                mismatch = true;
+            }
+            expectedPos++;
+        }
+    }
+
+    @Override
+    public boolean matches() {
+        if (mismatch || (inToken && !expectedTokenEnded())) {
+            return false;
+        }
+        int pos = expectedPos;
+        while (pos < expected.length && isWhitespace(expected[pos])) {
+            pos++;
+        }
+        return pos >= expected.length;
+    }
+
+    private boolean expectedTokenEnded() {
+        return expectedPos >= expected.length || isWhitespace(expected[expectedPos]);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+}
@@ -0,0 +1,78 @@
+package com.shodhcode.service;
+
+import java.util.Arrays;
+
+/**
+ * Accepts output whose lines are a permutation of the expected lines. Each line is reduced to a
+ * 64-bit hash of its tokens (so spacing within a line does not matter and blank lines are
+ * skipped), and the two sides are compared as sorted multisets of hashes.
+ */
+public class UnorderedLinesComparator implements OutputComparator {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] expectedHashes;
+    private final int expectedCount;
+    private long[] actualHashes = new long[16];
+    private int actualCount;
+    private long hash = FNV_OFFSET;
+    private boolean lineHasContent;
+    private boolean pendingSeparator;
+    private boolean tooManyLines;
+
+    public UnorderedLinesComparator(byte[] expected) {
+        feed(expected, 0, expected.length);
+        endLine();
+        this.expectedHashes = Arrays.copyOf(actualHashes, actualCount);
+        this.expectedCount = actualCount;
+        Arrays.sort(expectedHashes);
+        actualHashes = new long[Math.max(16, Math.min(expectedCount, 1024))];
+        actualCount = 0;
+    }
+
+    @Override
+    public void feed(byte[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length && !tooManyLines; i++) {
+            byte b = buffer[i];
+            if (b == '\n') {
+                endLine();
+            } else if (b == ' ' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B) {
+                pendingSeparator = lineHasContent;
+            } else {
+                if (pendingSeparator) {
+                    hash = (hash ^ ' ') * FNV_PRIME;
+                    pendingSeparator = false;
+                }
+                hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+                lineHasContent = true;
+            }
+        }
+    }
+
+    @Override
+    public boolean matches() {
+        endLine();
+        if (tooManyLines || actualCount != expectedCount) {
+            return false;
+        }
+        Arrays.sort(actualHashes, 0, actualCount);
+        return Arrays.equals(actualHashes, 0, actualCount, expectedHashes, 0, expectedCount);
+    }
+
+    private void endLine() {
+        if (lineHasContent) {
+            if (expectedHashes != null && actualCount == expectedCount) {
+                // More lines than expected can never match; stop collecting them
+                tooManyLines = true;
+            } else {
+                if (actualCount == actualHashes.length) {
+                    actualHashes = Arrays.copyOf(actualHashes, actualHashes.length * 2);
+                }
+                actualHashes[actualCount++] = hash;
+            }
+        }
+        hash = FNV_OFFSET;
+        lineHasContent = false;
+        pendingSeparator = false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.shodhcode.service;
+
+import org.springframework.stereotype.Component;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs each submission in fresh user, PID, network, IPC and UTS namespaces via unshare(1): the
+ * program sees itself as PID 1 with no network and cannot signal or inspect host processes. When
+ * the run ends or is killed, --kill-child takes the namespace's init down and with it every process
+ * the submission forked, so there is nothing to reset. Works without root on kernels that allow
+ * unprivileged user namespaces; memory and CPU time are still enforced by the judge's sampler.
+ */
+@Component
+public class UnshareSandboxBackend implements SandboxBackend {
+    private static final List<String> UNSHARE = List.of("unshare", "--user", "--map-root-user", "--net", "--ipc",
+            "--uts", "--pid", "--fork", "--kill-child", "--mount-proc", "--");
+
+    @Override
+    public String getName() {
+        return "unshare";
+    }
+
+    @Override
+    public boolean isIsolated() {
+        return true;
+    }
+
+    @Override
+    public List<String> wrap(List<String> command, Path workingDirectory, SandboxSlot slot) {
+        List<String> wrapped = new ArrayList<>(UNSHARE);
+        wrapped.addAll(command);
+        return HostSandboxBackend.pinned(wrapped, slot);
+    }
+}
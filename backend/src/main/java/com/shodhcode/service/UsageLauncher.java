@@ -0,0 +1,128 @@
+package com.shodhcode.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small native launcher that reports a process's CPU time and peak RSS from the kernel's own
+ * accounting (wait4) once it exits. {@link ProcessSampler} only sees what is there when it polls,
+ * so a run that ends before the first sample would count as free, and a spike just before the exit
+ * would go unnoticed. The launcher is compiled from judge/usage-launcher.c at startup; without a C
+ * compiler runs are measured by sampling alone.
+ */
+@Component
+@Slf4j
+public class UsageLauncher {
+    private static final String SOURCE = "judge/usage-launcher.c";
+
+    @Value("${judge.usage-launcher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${judge.usage-launcher.compiler:gcc}")
+    private String compiler;
+
+    private Path binary;
+    private Path reports;
+
+    @PostConstruct
+    void init() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        Path directory = Files.createTempDirectory("judge_usage_");
+        Path source = directory.resolve("usage-launcher.c");
+        try (InputStream in = UsageLauncher.class.getClassLoader().getResourceAsStream(SOURCE)) {
+            Files.copy(in, source);
+        }
+        Path compiled = directory.resolve("usage-launcher");
+        Process compile;
+        try {
+            compile = new ProcessBuilder(compiler, "-O2", "-o", compiled.toString(), source.toString())
+                    .redirectErrorStream(true)
+                    .start();
+        } catch (IOException e) {
+            log.warn("No {} to build the usage launcher, runs are measured by sampling only", compiler);
+            return;
+        }
+        String output = new String(compile.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (!compile.waitFor(30, TimeUnit.SECONDS) || compile.exitValue() != 0) {
+            compile.destroyForcibly();
+            log.warn("Could not build the usage launcher, runs are measured by sampling only: {}", output);
+            return;
+        }
+        reports = Files.createDirectory(directory.resolve("reports"));
+        binary = compiled;
+        log.info("Usage launcher built, runs are measured from the kernel's accounting on exit");
+    }
+
+    public boolean isEnabled() {
+        return binary != null;
+    }
+
+    /**
+     * A report for one process. Start the process with {@link Report#wrap} and read the report
+     * once it has exited.
+     */
+    public Report newReport() throws IOException {
+        Path file = Files.createTempFile(reports, "usage_", "");
+        // Opened before the launcher unlinks the file, so it can still be read afterwards
+        return new Report(file, FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    public final class Report implements AutoCloseable {
+        private final Path file;
+        private final FileChannel channel;
+
+        private Report(Path file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+
+        public List<String> wrap(List<String> command) {
+            List<String> wrapped = new ArrayList<>(List.of(binary.toString(), file.toString()));
+            wrapped.addAll(command);
+            return wrapped;
+        }
+
+        /**
+         * What the kernel accounted for the command, if the launcher lived to see it exit.
+         */
+        public Optional<Usage> read() throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            channel.read(buffer, 0);
+            String[] fields = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim().split(" ");
+            if (fields.length != 2) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Usage(Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            // Only still there when the launcher never started
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public record Usage(long cpuMillis, long peakRssKb) {
+    }
+}
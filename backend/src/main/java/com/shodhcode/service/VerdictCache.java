@@ -0,0 +1,83 @@
+package com.shodhcode.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the result of judging a program against a problem's tests, keyed by
+ * {@link SourceFingerprint#verdictKey}, so a resubmission of the same program gets its verdict without
+ * compiling or running anything. The key includes the test-set version kept in the database, so
+ * tests changed on any node never see an old verdict; their entries are also dropped to free the
+ * space once this node notices the change.
+ *
+ * <p>Only verdicts that do not depend on machine load are kept: a time or memory limit verdict is
+ * always recomputed. A runtime error is only ever the program's own; when the judge itself fails
+ * (sandbox, runtime, special checker) judging ends with an exception and nothing is stored.
+ */
+@Service
+public class VerdictCache {
+    private static final Set<String> CACHEABLE_VERDICTS = Set.of(
+            "ACCEPTED", "WRONG_ANSWER", "RUNTIME_ERROR", "COMPILATION_ERROR", "OUTPUT_LIMIT_EXCEEDED");
+
+    @Value("${judge.cache.verdicts.max-entries:10000}")
+    private int maxEntries;
+
+    private final LinkedHashMap<String, CachedVerdict> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedVerdict> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    synchronized JudgeService.JudgeResult get(String key) {
+        CachedVerdict cached = entries.get(key);
+        (cached != null ? hits : misses).incrementAndGet();
+        return cached != null ? cached.result() : null;
+    }
+
+    /**
+     * Stores the result if its verdict is cacheable. The result must not be modified afterwards.
+     */
+    synchronized void put(String key, Long problemId, JudgeService.JudgeResult result) {
+        if (CACHEABLE_VERDICTS.contains(result.getVerdict())) {
+            entries.put(key, new CachedVerdict(problemId, result));
+        }
+    }
+
+    @EventListener
+    public synchronized void onTestCasesChanged(TestCasesChangedEvent event) {
+        entries.values().removeIf(cached -> cached.problemId().equals(event.problemId()));
+    }
+
+    public synchronized long getEntries() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private record CachedVerdict(Long problemId, JudgeService.JudgeResult result) {
+    }
+}
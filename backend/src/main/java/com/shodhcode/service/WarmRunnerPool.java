@@ -0,0 +1,284 @@
+package com.shodhcode.service;
+
+import com.shodhcode.runner.LimitedOutputStream;
+import com.shodhcode.runner.SandboxRunner;
+import com.shodhcode.runner.SubmissionClassLoader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a pool of pre-started runner JVMs (see {@link SandboxRunner}) so Java submissions do not pay
+ * JVM startup on every test. A runner is retired after a configured number of runs or as soon as it
+ * reports suspicious state, and a replacement is started in the background.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WarmRunnerPool {
+    private static final List<Class<?>> RUNNER_CLASSES = List.of(
+            SandboxRunner.class, SubmissionClassLoader.class, LimitedOutputStream.class);
+
+    private final SandboxPool sandboxPool;
+
+    @Value("${judge.runner.mode:warm}")
+    private String mode;
+
+    @Value("${judge.runner.pool-size:0}")
+    private int configuredPoolSize;
+
+    @Value("${judge.runner.max-runs:200}")
+    private int maxRunsPerRunner;
+
+    @Value("${judge.runner.heap-mb:256}")
+    private int heapMb;
+
+    private final BlockingQueue<Runner> idleRunners = new LinkedBlockingQueue<>();
+    private final AtomicInteger liveRunners = new AtomicInteger();
+    private final ExecutorService spawner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "warm-runner-spawner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "warm-runner-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Path runnerClasspath;
+    private int baselinePoolSize;
+    private volatile int poolSize;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!isEnabled()) {
+            log.info("Warm runner pool disabled, Java submissions run in a fresh JVM per test");
+            return;
+        }
+        runnerClasspath = Files.createTempDirectory("judge_runner_");
+        for (Class<?> runnerClass : RUNNER_CLASSES) {
+            String resource = runnerClass.getName().replace('.', '/') + ".class";
+            Path target = runnerClasspath.resolve(resource);
+            Files.createDirectories(target.getParent());
+            try (InputStream in = runnerClass.getClassLoader().getResourceAsStream(resource)) {
+                Files.copy(in, target);
+            }
+        }
+        baselinePoolSize = configuredPoolSize > 0 ? configuredPoolSize : Runtime.getRuntime().availableProcessors();
+        poolSize = baselinePoolSize;
+        for (int i = 0; i < poolSize; i++) {
+            spawnReplacement();
+        }
+        log.info("Warm runner pool starting {} runner JVMs", poolSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        spawner.shutdownNow();
+        watchdog.shutdownNow();
+        Runner runner;
+        while ((runner = idleRunners.poll()) != null) {
+            runner.destroy();
+        }
+    }
+
+    /**
+     * Runner JVMs live on the host, so they are only used when submissions are not sandboxed.
+     */
+    public boolean isEnabled() {
+        return "warm".equals(mode) && !sandboxPool.isIsolated();
+    }
+
+    /**
+     * Runners share one heap of judge.runner.heap-mb, so problems allowing more than that run in a fresh JVM.
+     */
+    public boolean canServe(long memoryLimitMb) {
+        return isEnabled() && memoryLimitMb <= heapMb;
+    }
+
+    public int getBaselinePoolSize() {
+        return baselinePoolSize;
+    }
+
+    /**
+     * Grows or shrinks the pool to the given number of runners. Extra runners are started in the
+     * background; surplus idle runners are stopped now and busy ones when their run ends.
+     */
+    public synchronized void resize(int size) {
+        if (!isEnabled() || size < 1 || size == poolSize) {
+            return;
+        }
+        log.info("Resizing warm runner pool from {} to {} runner JVMs", poolSize, size);
+        poolSize = size;
+        for (int i = liveRunners.get(); i < size; i++) {
+            spawnReplacement();
+        }
+        Runner runner;
+        while (liveRunners.get() > size && (runner = idleRunners.poll()) != null) {
+            runner.destroy();
+        }
+    }
+
+    /**
+     * Runs a compiled submission in a warm runner.
+     *
+     * @throws RunnerUnavailableException when no runner could serve the request (none ready, the
+     *                                    runner died mid-run or the run was cancelled); unless the run
+     *                                    was cancelled, callers fall back to a forked JVM
+     */
+    public RunResult run(CompiledArtifact artifact, byte[] input, long timeLimitMillis, long outputLimitBytes,
+                         ExecutionControl control) throws IOException, InterruptedException {
+        if (liveRunners.get() == 0) {
+            throw new RunnerUnavailableException("No warm runner is running");
+        }
+        Runner runner = idleRunners.poll(timeLimitMillis, TimeUnit.MILLISECONDS);
+        if (runner == null) {
+            throw new RunnerUnavailableException("No warm runner available");
+        }
+
+        // Cancelling the run, like the watchdog guarding against a runner that stops answering
+        // altogether, kills the runner; that unblocks the read below. Both are disarmed before the
+        // runner can be handed to another run.
+        RunResult result;
+        ScheduledFuture<?> guard = watchdog.schedule(runner::destroy, timeLimitMillis + 5000, TimeUnit.MILLISECONDS);
+        try (ExecutionControl.Registration abort = control.onCancel(runner::destroy)) {
+            result = runner.execute(artifact, input, timeLimitMillis, outputLimitBytes);
+        } catch (IOException e) {
+            retire(runner);
+            throw new RunnerUnavailableException("Warm runner died during execution");
+        } finally {
+            guard.cancel(false);
+        }
+
+        if (runner.isDestroyed()) {
+            // Killed by a cancel or the watchdog just as the run finished
+            spawnReplacement();
+        } else if (liveRunners.get() > poolSize) {
+            // The pool was shrunk while this runner was busy
+            runner.destroy();
+        } else if (result.recycle() || runner.runs >= maxRunsPerRunner) {
+            retire(runner);
+        } else {
+            idleRunners.add(runner);
+        }
+        return result;
+    }
+
+    private void retire(Runner runner) {
+        runner.destroy();
+        spawnReplacement();
+    }
+
+    private void spawnReplacement() {
+        spawner.execute(() -> {
+            if (liveRunners.get() >= poolSize) {
+                return;
+            }
+            try {
+                Runner runner = startRunner();
+                idleRunners.add(runner);
+            } catch (IOException e) {
+                log.error("Failed to start warm runner", e);
+            }
+        });
+    }
+
+    private Runner startRunner() throws IOException {
+        ProcessBuilder builder = new ProcessBuilder("java", "-Xmx" + heapMb + "m", "-XX:+DisplayVMOutputToStderr",
+                "-cp", runnerClasspath.toString(), SandboxRunner.class.getName());
+        builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        Process process = builder.start();
+        Runner runner = new Runner(process);
+        String handshake = runner.responses.readUTF();
+        if (!"READY".equals(handshake)) {
+            process.destroyForcibly();
+            throw new IOException("Unexpected runner handshake: " + handshake);
+        }
+        liveRunners.incrementAndGet();
+        return runner;
+    }
+
+    public record RunResult(boolean timedOut, int exitCode, long wallMillis, long cpuMillis, long peakMemoryBytes,
+                            boolean outOfMemory, boolean recycle, boolean outputLimitExceeded, byte[] stdout, byte[] stderr) {
+    }
+
+    public static class RunnerUnavailableException extends IOException {
+        public RunnerUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    private class Runner {
+        private final Process process;
+        private final DataOutputStream requests;
+        private final DataInputStream responses;
+        private int runs;
+        private boolean destroyed;
+
+        Runner(Process process) {
+            this.process = process;
+            this.requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        RunResult execute(CompiledArtifact artifact, byte[] input, long timeLimitMillis, long outputLimitBytes)
+                throws IOException {
+            runs++;
+            Map<String, byte[]> classFiles = artifact.getClassFiles();
+            requests.writeInt(classFiles.size());
+            for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+                requests.writeUTF(classFile.getKey());
+                requests.writeInt(classFile.getValue().length);
+                requests.write(classFile.getValue());
+            }
+            requests.writeUTF(artifact.getMainClass());
+            requests.writeInt(input.length);
+            requests.write(input);
+            requests.writeLong(timeLimitMillis);
+            requests.writeLong(outputLimitBytes);
+            requests.flush();
+
+            boolean timedOut = SandboxRunner.STATUS_TIMEOUT.equals(responses.readUTF());
+            int exitCode = responses.readInt();
+            long wallMillis = responses.readLong();
+            long cpuMillis = responses.readLong();
+            long peakMemoryBytes = responses.readLong();
+            boolean outOfMemory = responses.readBoolean();
+            boolean recycle = responses.readBoolean();
+            boolean outputLimitExceeded = responses.readBoolean();
+            byte[] stdout = readBytes();
+            byte[] stderr = readBytes();
+            return new RunResult(timedOut, exitCode, wallMillis, cpuMillis, peakMemoryBytes, outOfMemory, recycle,
+                    outputLimitExceeded, stdout, stderr);
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[responses.readInt()];
+            responses.readFully(bytes);
+            return bytes;
+        }
+
+        synchronized boolean isDestroyed() {
+            return destroyed;
+        }
+
+        synchronized void destroy() {
+            if (!destroyed) {
+                destroyed = true;
+                liveRunners.decrementAndGet();
+                process.destroyForcibly();
+            }
+        }
+    }
+}
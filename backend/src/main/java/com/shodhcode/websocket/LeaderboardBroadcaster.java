@@ -0,0 +1,153 @@
+package com.shodhcode.websocket;
+
+import com.shodhcode.dto.ContestLeaderboardEntry;
+import com.shodhcode.dto.LeaderboardUpdate;
+import com.shodhcode.service.LeaderboardService;
+import com.shodhcode.service.StandingsPublishedEvent;
+import com.shodhcode.service.StandingsSnapshotService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces leaderboard changes and publishes them to /topic/leaderboard/{contestId} at most once
+ * per window. Each publication is a DELTA holding only the rows whose rank or score changed since
+ * the previous version; clients get a full SNAPSHOT of the last published version on subscribe
+ * and apply the deltas that follow it in version order. Once a contest is served from a standings
+ * snapshot the rows come from that snapshot: nothing changes while the board is frozen, and the
+ * final standings go out as one last delta.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardBroadcaster {
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LeaderboardService leaderboardService;
+    private final StandingsSnapshotService standingsSnapshots;
+
+    @Value("${leaderboard.broadcast.window-ms:250}")
+    private long windowMillis;
+
+    private final Set<Long> changedContests = ConcurrentHashMap.newKeySet();
+    private final Map<Long, PublishedState> published = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * Records that a contest's standings changed; the change goes out with the next window.
+     */
+    public void markChanged(Long contestId) {
+        changedContests.add(contestId);
+    }
+
+    @EventListener
+    public void onStandingsPublished(StandingsPublishedEvent event) {
+        markChanged(event.contestId());
+    }
+
+    public LeaderboardUpdate snapshot(Long contestId) {
+        PublishedState state = stateFor(contestId);
+        synchronized (state) {
+            List<ContestLeaderboardEntry> rows = new ArrayList<>(state.rows.values());
+            rows.sort(Comparator.comparing(ContestLeaderboardEntry::getRank));
+            return LeaderboardUpdate.builder()
+                    .type("SNAPSHOT")
+                    .contestId(contestId)
+                    .version(state.version)
+                    .totalEntries(rows.size())
+                    .rows(rows)
+                    .build();
+        }
+    }
+
+    void flush() {
+        for (Iterator<Long> it = changedContests.iterator(); it.hasNext(); ) {
+            Long contestId = it.next();
+            it.remove();
+            try {
+                publishDelta(contestId);
+            } catch (Exception e) {
+                log.error("Failed to broadcast leaderboard for contest {}", contestId, e);
+            }
+        }
+    }
+
+    private Optional<List<ContestLeaderboardEntry>> currentRows(Long contestId) {
+        Optional<StandingsSnapshotService.PublishedStandings> snapshot = standingsSnapshots.published(contestId);
+        if (snapshot.isPresent()) {
+            return Optional.of(snapshot.get().entries());
+        }
+        return leaderboardService.standings(contestId).map(standings -> standings.page(0, Integer.MAX_VALUE));
+    }
+
+    private void publishDelta(Long contestId) {
+        Optional<List<ContestLeaderboardEntry>> rows = currentRows(contestId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        PublishedState state = stateFor(contestId);
+        LeaderboardUpdate update;
+        synchronized (state) {
+            List<ContestLeaderboardEntry> changed = new ArrayList<>();
+            List<ContestLeaderboardEntry> current = rows.get();
+            for (ContestLeaderboardEntry entry : current) {
+                if (!entry.equals(state.rows.put(entry.getUserId(), entry))) {
+                    changed.add(entry);
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            state.version++;
+            update = LeaderboardUpdate.builder()
+                    .type("DELTA")
+                    .contestId(contestId)
+                    .version(state.version)
+                    .totalEntries(current.size())
+                    .rows(changed)
+                    .build();
+            // Sent while holding the state so a concurrent snapshot cannot be newer than a delta still in flight
+            messagingTemplate.convertAndSend("/topic/leaderboard/" + contestId, update);
+        }
+    }
+
+    private PublishedState stateFor(Long contestId) {
+        return published.computeIfAbsent(contestId, id -> {
+            PublishedState state = new PublishedState();
+            currentRows(id).ifPresent(rows -> {
+                for (ContestLeaderboardEntry entry : rows) {
+                    state.rows.put(entry.getUserId(), entry);
+                }
+            });
+            return state;
+        });
+    }
+
+    private static class PublishedState {
+        private long version;
+        private final Map<Long, ContestLeaderboardEntry> rows = new HashMap<>();
+    }
+}
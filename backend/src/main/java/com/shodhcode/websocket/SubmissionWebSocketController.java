@@ -21,11 +21,14 @@ public class SubmissionWebSocketController {
     }
 
     public void broadcastSubmissionUpdate(Long submissionId) {
-        Submission submission = submissionRepository.findById(submissionId).orElse(null);
-        if (submission != null) {
-            SubmissionResponse response = mapToResponse(submission);
-            messagingTemplate.convertAndSend("/topic/submission/" + submissionId, response);
-        }
+        submissionRepository.findById(submissionId).ifPresent(this::broadcastSubmissionUpdate);
+    }
+
+    /**
+     * Broadcasts the given state as is, for callers that already hold the up-to-date submission.
+     */
+    public void broadcastSubmissionUpdate(Submission submission) {
+        messagingTemplate.convertAndSend("/topic/submission/" + submission.getId(), mapToResponse(submission));
     }
 
     public void broadcastContestSubmission(Long contestId, SubmissionResponse submission) {
@@ -43,6 +46,12 @@ public class SubmissionWebSocketController {
                 .error(submission.getError())
                 .executionTime(submission.getExecutionTime())
                 .memoryUsed(submission.getMemoryUsed())
+                .samplesPassed(submission.getSamplesPassed())
+                .samplesTotal(submission.getSamplesTotal())
+                .hiddenPassed(submission.getHiddenPassed())
+                .hiddenTotal(submission.getHiddenTotal())
+                .failedTier(submission.getFailedTier())
+                .failedTestNumber(submission.getFailedTestNumber())
                 .submittedAt(submission.getSubmittedAt())
                 .language(submission.getLanguage())
                 .build();
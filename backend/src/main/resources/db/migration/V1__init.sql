@@ -0,0 +1,132 @@
+-- Initial schema for the durable profiles. Written to run on both H2 and PostgreSQL.
+-- Entity ids come from sequences handing out blocks of 50 (allocationSize in the entities);
+-- the judge queue and its event outbox keep identity columns, which they read in id order.
+
+create sequence users_seq start with 1 increment by 50;
+create sequence contests_seq start with 1 increment by 50;
+create sequence problems_seq start with 1 increment by 50;
+create sequence test_cases_seq start with 1 increment by 50;
+create sequence submissions_seq start with 1 increment by 50;
+create sequence code_reviews_seq start with 1 increment by 50;
+
+create table users (
+    id bigint not null,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    full_name varchar(255),
+    score BIGINT DEFAULT 0,
+    problems_solved INT DEFAULT 0,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create index idx_users_score on users (score desc, id);
+
+create table contests (
+    id bigint not null,
+    title varchar(255) not null,
+    description varchar(255),
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    total_problems INT DEFAULT 0,
+    total_participants INT DEFAULT 0,
+    status VARCHAR(20) DEFAULT 'UPCOMING',
+    primary key (id)
+);
+
+create table problems (
+    id bigint not null,
+    contest_id bigint not null,
+    title varchar(255) not null,
+    description TEXT,
+    input_format TEXT,
+    output_format TEXT,
+    constraints TEXT,
+    difficulty VARCHAR(20) DEFAULT 'MEDIUM',
+    points INT DEFAULT 100,
+    solved_count INT DEFAULT 0,
+    attempt_count INT DEFAULT 0,
+    time_limit_ms INT DEFAULT 2000,
+    memory_limit_mb INT DEFAULT 256,
+    checker_type VARCHAR(20) DEFAULT 'TOKENS',
+    absolute_epsilon double precision,
+    relative_epsilon double precision,
+    checker_source TEXT,
+    primary key (id),
+    constraint fk_problems_contest foreign key (contest_id) references contests (id)
+);
+
+create table test_cases (
+    id bigint not null,
+    problem_id bigint not null,
+    input TEXT not null,
+    expected_output TEXT not null,
+    is_hidden BOOLEAN DEFAULT false,
+    rejection_count BIGINT DEFAULT 0,
+    primary key (id),
+    constraint fk_test_cases_problem foreign key (problem_id) references problems (id)
+);
+
+create table submissions (
+    id bigint not null,
+    user_id bigint not null,
+    problem_id bigint not null,
+    contest_id bigint not null,
+    code TEXT not null,
+    status VARCHAR(30) DEFAULT 'PENDING',
+    verdict VARCHAR(50),
+    output TEXT,
+    error TEXT,
+    execution_time INT DEFAULT 0,
+    memory_used INT DEFAULT 0,
+    samples_passed integer,
+    samples_total integer,
+    hidden_passed integer,
+    hidden_total integer,
+    failed_tier VARCHAR(10),
+    failed_test_number integer,
+    submitted_at timestamp(6) not null,
+    language VARCHAR(20) DEFAULT 'JAVA',
+    primary key (id),
+    constraint fk_submissions_user foreign key (user_id) references users (id),
+    constraint fk_submissions_problem foreign key (problem_id) references problems (id),
+    constraint fk_submissions_contest foreign key (contest_id) references contests (id)
+);
+
+create index idx_submissions_contest_time on submissions (contest_id, submitted_at, id);
+create index idx_submissions_user_contest on submissions (user_id, contest_id);
+
+create table code_reviews (
+    id bigint not null,
+    submission_id bigint not null,
+    feedback TEXT,
+    suggestions TEXT,
+    highlights TEXT,
+    reviewed_at timestamp(6) not null,
+    quality_score INT DEFAULT 0,
+    primary key (id),
+    constraint fk_code_reviews_submission foreign key (submission_id) references submissions (id)
+);
+
+create table judge_jobs (
+    id bigint generated by default as identity,
+    submission_id bigint not null,
+    status VARCHAR(10) DEFAULT 'QUEUED',
+    lease_owner VARCHAR(100),
+    lease_expires_at timestamp(6),
+    attempts INT DEFAULT 0,
+    enqueued_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_judge_jobs_submission unique (submission_id)
+);
+
+create index idx_judge_jobs_status on judge_jobs (status, id);
+
+create table judge_events (
+    id bigint generated by default as identity,
+    submission_id bigint not null,
+    type VARCHAR(10) not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
@@ -0,0 +1,13 @@
+create sequence standings_snapshots_seq start with 1 increment by 50;
+
+create table standings_snapshots (
+    id bigint not null,
+    contest_id bigint not null,
+    kind VARCHAR(10) not null,
+    taken_at timestamp(6) not null,
+    entry_count integer not null,
+    etag VARCHAR(64) not null,
+    entries TEXT not null,
+    primary key (id),
+    constraint uk_standings_snapshots_contest_kind unique (contest_id, kind)
+);
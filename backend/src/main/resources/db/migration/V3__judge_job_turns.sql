@@ -0,0 +1,5 @@
+alter table judge_jobs add column user_id bigint;
+alter table judge_jobs add column user_turn INT DEFAULT 0;
+
+create index idx_judge_jobs_turn on judge_jobs (status, user_turn, id);
+create index idx_judge_jobs_user on judge_jobs (user_id);
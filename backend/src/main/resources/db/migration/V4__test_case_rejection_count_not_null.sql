@@ -0,0 +1,2 @@
+update test_cases set rejection_count = 0 where rejection_count is null;
+alter table test_cases alter column rejection_count set not null;
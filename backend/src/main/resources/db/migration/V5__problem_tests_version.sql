@@ -0,0 +1 @@
+alter table problems add column tests_version bigint default 0 not null;
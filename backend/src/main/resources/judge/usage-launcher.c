@@ -0,0 +1,55 @@
+/*
+ * Runs a command as a child and, once it has exited, writes its CPU time and peak RSS as the
+ * kernel accounted them to the report file, as "<cpu millis> <peak rss kb>\n". The report file is
+ * opened and unlinked before the child starts, and the launcher makes itself non-dumpable so the
+ * child cannot reach the open file through /proc either. Exits with the child's exit code, or
+ * 128 + the signal that ended it.
+ *
+ * usage: usage-launcher <report-file> <command> [args...]
+ */
+#include <errno.h>
+#include <fcntl.h>
+#include <stdio.h>
+#include <string.h>
+#include <sys/prctl.h>
+#include <sys/resource.h>
+#include <sys/wait.h>
+#include <unistd.h>
+
+int main(int argc, char **argv) {
+    if (argc < 3) {
+        fprintf(stderr, "usage: %s <report-file> <command> [args...]\n", argv[0]);
+        return 125;
+    }
+    int report = open(argv[1], O_WRONLY | O_TRUNC | O_CLOEXEC);
+    if (report < 0 || unlink(argv[1]) != 0) {
+        perror("usage-launcher: report file");
+        return 125;
+    }
+    prctl(PR_SET_DUMPABLE, 0);
+
+    pid_t child = fork();
+    if (child < 0) {
+        perror("usage-launcher: fork");
+        return 125;
+    }
+    if (child == 0) {
+        execvp(argv[2], argv + 2);
+        fprintf(stderr, "usage-launcher: %s: %s\n", argv[2], strerror(errno));
+        _exit(127);
+    }
+
+    int status;
+    struct rusage usage;
+    while (wait4(child, &status, 0, &usage) < 0) {
+        if (errno != EINTR) {
+            perror("usage-launcher: wait4");
+            return 125;
+        }
+    }
+    long cpuMillis = (usage.ru_utime.tv_sec + usage.ru_stime.tv_sec) * 1000L
+            + (usage.ru_utime.tv_usec + usage.ru_stime.tv_usec) / 1000;
+    dprintf(report, "%ld %ld\n", cpuMillis, usage.ru_maxrss);
+    close(report);
+    return WIFEXITED(status) ? WEXITSTATUS(status) : 128 + WTERMSIG(status);
+}
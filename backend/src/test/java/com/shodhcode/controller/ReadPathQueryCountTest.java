@@ -0,0 +1,136 @@
+package com.shodhcode.controller;
+
+import com.shodhcode.entity.Submission;
+import com.shodhcode.repository.ContestRepository;
+import com.shodhcode.repository.ProblemRepository;
+import com.shodhcode.repository.SubmissionRepository;
+import com.shodhcode.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the read paths against N+1 regressions: associations are lazy, so every endpoint must fetch
+ * what it uses in the statements counted here. Background work that would also query the database
+ * (judging, contest lifecycle, standings snapshots) is switched off.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "judge.worker.enabled=false",
+        "judge.runner.mode=fork",
+        "contest.lifecycle.enabled=false",
+        "leaderboard.snapshot.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReadPathQueryCountTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private ContestRepository contestRepository;
+
+    private Statistics statistics;
+    private Long submissionId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        submissionId = submissionRepository.save(Submission.builder()
+                .user(userRepository.findAll().get(0))
+                .problem(problemRepository.findById(1L).orElseThrow())
+                .contest(contestRepository.findById(1L).orElseThrow())
+                .code("public class Solution {}")
+                .language("JAVA")
+                .status(Submission.SubmissionStatus.PENDING)
+                .submittedAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    @Test
+    void judgeReadsSubmissionUserAndProblemInOneStatement() throws Exception {
+        long statements = count(() -> {
+            Submission submission = submissionRepository.findWithUserAndProblemById(submissionId).orElseThrow();
+            assertThat(submission.getUser().getUsername()).isNotBlank();
+            assertThat(submission.getProblem().getTitle()).isNotBlank();
+            assertThat(submission.getContest().getId()).isEqualTo(1L);
+        });
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void submissionIsOneStatement() throws Exception {
+        assertThat(countGet("/api/submissions/" + submissionId)).isEqualTo(1);
+    }
+
+    @Test
+    void contestFeedIsOneStatement() throws Exception {
+        assertThat(countGet("/api/submissions/contest/1")).isEqualTo(1);
+    }
+
+    @Test
+    void problemListIsOneStatement() throws Exception {
+        assertThat(countGet("/api/problems/contest/1")).isEqualTo(1);
+    }
+
+    @Test
+    void cachedProblemNeedsNoStatement() throws Exception {
+        countGet("/api/problems/1");
+        assertThat(countGet("/api/problems/1")).isZero();
+    }
+
+    @Test
+    void liveLeaderboardNeedsNoStatement() throws Exception {
+        assertThat(countGet("/api/problems/contest/1/leaderboard")).isZero();
+    }
+
+    @Test
+    void codeReviewIsOneSelectAndTheInsert() throws Exception {
+        // The pooled id optimizer reads the sequence on the first two inserts, then every 50
+        countPost("/api/code-mentor/review/" + submissionId);
+        countPost("/api/code-mentor/review/" + submissionId);
+        assertThat(countPost("/api/code-mentor/review/" + submissionId)).isEqualTo(2);
+    }
+
+    private long countGet(String path) throws Exception {
+        return count(() -> mockMvc.perform(get(path)).andExpect(status().isOk()));
+    }
+
+    private long countPost(String path) throws Exception {
+        return count(() -> mockMvc.perform(post(path)).andExpect(status().isOk()));
+    }
+
+    private long count(ThrowingRunnable action) throws Exception {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
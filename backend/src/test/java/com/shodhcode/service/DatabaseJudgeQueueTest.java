@@ -0,0 +1,74 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.JudgeJob;
+import com.shodhcode.repository.JudgeJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "judge.worker.enabled=false",
+        "judge.runner.mode=fork",
+        "contest.lifecycle.enabled=false",
+        "leaderboard.snapshot.enabled=false"
+})
+class DatabaseJudgeQueueTest {
+    @Autowired
+    private DatabaseJudgeQueue queue;
+
+    @Autowired
+    private JudgeJobRepository judgeJobRepository;
+
+    @AfterEach
+    void tearDown() {
+        judgeJobRepository.deleteAll();
+    }
+
+    @Test
+    void aUsersJobsKeepTheirOrderAfterEarlierOnesFinish() {
+        queue.offer(101L, 1L);
+        queue.offer(102L, 1L);
+        queue.offer(103L, 1L);
+        judgeJobRepository.delete(job(101L));
+        judgeJobRepository.delete(job(102L));
+
+        queue.offer(104L, 1L);
+
+        assertThat(job(103L).getUserTurn()).isEqualTo(2);
+        assertThat(job(104L).getUserTurn()).isEqualTo(3);
+        assertThat(claimOrder()).containsExactly(103L, 104L);
+    }
+
+    @Test
+    void aNewUserJoinsTheRoundBeingHandedOut() {
+        queue.offer(201L, 1L);
+        queue.offer(202L, 1L);
+        queue.offer(203L, 1L);
+        judgeJobRepository.delete(job(201L));
+
+        queue.offer(204L, 2L);
+
+        assertThat(job(204L).getUserTurn()).isEqualTo(1);
+        assertThat(claimOrder()).containsExactly(202L, 204L, 203L);
+    }
+
+    private JudgeJob job(Long submissionId) {
+        return judgeJobRepository.findAll().stream()
+                .filter(job -> job.getSubmissionId().equals(submissionId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // The order lockNextClaimableByTurn hands the jobs out in
+    private List<Long> claimOrder() {
+        return judgeJobRepository.findAll().stream()
+                .sorted(Comparator.comparing(JudgeJob::getUserTurn).thenComparing(JudgeJob::getId))
+                .map(JudgeJob::getSubmissionId)
+                .toList();
+    }
+}
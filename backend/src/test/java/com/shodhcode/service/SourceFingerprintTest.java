@@ -0,0 +1,45 @@
+package com.shodhcode.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceFingerprintTest {
+
+    @Test
+    void pythonKeepsTrailingWhitespaceInsideAStringLiteral() {
+        String padded = "s = \"\"\"a   \nb\"\"\"\nprint(len(s))\n";
+        String trimmed = "s = \"\"\"a\nb\"\"\"\nprint(len(s))\n";
+
+        assertThat(SourceFingerprint.of(padded, "PYTHON")).isNotEqualTo(SourceFingerprint.of(trimmed, "PYTHON"));
+    }
+
+    @Test
+    void pythonKeepsCarriageReturns() {
+        String crlf = "s = '''a\r\nb'''\r\nprint(len(s))\r\n";
+        String lf = "s = '''a\nb'''\nprint(len(s))\n";
+
+        assertThat(SourceFingerprint.of(crlf, "PYTHON")).isNotEqualTo(SourceFingerprint.of(lf, "PYTHON"));
+    }
+
+    @Test
+    void cppKeepsSpacesAfterALineContinuation() {
+        String spaced = "#define TWO 1 + \\  \n 1\nint main() { return TWO; }\n";
+        String joined = "#define TWO 1 + \\\n 1\nint main() { return TWO; }\n";
+
+        assertThat(SourceFingerprint.of(spaced, "CPP")).isNotEqualTo(SourceFingerprint.of(joined, "CPP"));
+    }
+
+    @Test
+    void javaIgnoresLineEndingsAndTrailingWhitespace() {
+        String messy = "public class Solution {   \r\n    static String s = \"\"\"\r\n        a   \r\n        \"\"\";\r\n}\r\n\r\n";
+        String clean = "public class Solution {\n    static String s = \"\"\"\n        a\n        \"\"\";\n}";
+
+        assertThat(SourceFingerprint.of(messy, "JAVA")).isEqualTo(SourceFingerprint.of(clean, "JAVA"));
+    }
+
+    @Test
+    void languageIsPartOfTheFingerprint() {
+        assertThat(SourceFingerprint.of("print(1)", "PYTHON")).isNotEqualTo(SourceFingerprint.of("print(1)", "JAVA"));
+    }
+}
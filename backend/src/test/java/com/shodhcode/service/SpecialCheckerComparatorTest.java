@@ -0,0 +1,65 @@
+package com.shodhcode.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpecialCheckerComparatorTest {
+    private final ExecutorService checkerThreads = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        checkerThreads.shutdownNow();
+    }
+
+    @Test
+    void acceptsWhatTheCheckerAccepts() throws Exception {
+        SpecialCheckerComparator comparator = comparator("sameLength");
+        comparator.feed("abc".getBytes(StandardCharsets.UTF_8), 0, 3);
+
+        assertThat(comparator.matches()).isTrue();
+    }
+
+    @Test
+    void aCheckerThatRunsTooLongIsAJudgeError() throws Exception {
+        SpecialCheckerComparator comparator = comparator("neverReturns");
+
+        assertThatThrownBy(comparator::matches)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not finish");
+    }
+
+    @Test
+    void aCheckerThatThrowsIsAJudgeError() throws Exception {
+        SpecialCheckerComparator comparator = comparator("fails");
+
+        assertThatThrownBy(comparator::matches)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Checker failed");
+    }
+
+    private SpecialCheckerComparator comparator(String checker) throws NoSuchMethodException {
+        Method check = SpecialCheckerComparatorTest.class.getMethod(checker, String.class, String.class, String.class);
+        return new SpecialCheckerComparator(check, new byte[0], "xyz".getBytes(StandardCharsets.UTF_8),
+                checkerThreads, 200);
+    }
+
+    public static boolean sameLength(String input, String expected, String actual) {
+        return expected.length() == actual.length();
+    }
+
+    public static boolean neverReturns(String input, String expected, String actual) throws InterruptedException {
+        Thread.sleep(Long.MAX_VALUE);
+        return true;
+    }
+
+    public static boolean fails(String input, String expected, String actual) {
+        throw new IllegalArgumentException("unexpected output");
+    }
+}
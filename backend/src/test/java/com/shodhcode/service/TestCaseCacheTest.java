@@ -0,0 +1,82 @@
+package com.shodhcode.service;
+
+import com.shodhcode.entity.TestCase;
+import com.shodhcode.repository.ProblemRepository;
+import com.shodhcode.repository.TestCaseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test-set version lives in the database, so a judge notices tests another node changed.
+ */
+@SpringBootTest(properties = {
+        "judge.worker.enabled=false",
+        "judge.runner.mode=fork",
+        "contest.lifecycle.enabled=false",
+        "leaderboard.snapshot.enabled=false"
+})
+class TestCaseCacheTest {
+    private static final long PROBLEM_ID = 2L;
+
+    @Autowired
+    private TestCaseCache testCaseCache;
+
+    @Autowired
+    private VerdictCache verdictCache;
+
+    @Autowired
+    private TestCaseRepository testCaseRepository;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reloadsTestsChangedByAnotherNode() {
+        TestCaseCache.ProblemTests before = testCaseCache.get(PROBLEM_ID);
+        assertThat(testCaseCache.get(PROBLEM_ID)).isSameAs(before);
+        TestCaseCache.CachedTestCase first = before.tests().get(0);
+        String original = new String(first.expectedOutput(), StandardCharsets.UTF_8);
+        verdictCache.put("other-node-test", PROBLEM_ID, verdict());
+
+        // What another node's edit leaves behind: new rows and a bumped version, but nothing in this JVM
+        jdbcTemplate.update("UPDATE test_cases SET expected_output = ? WHERE id = ?", "changed", first.id());
+        jdbcTemplate.update("UPDATE problems SET tests_version = tests_version + 1 WHERE id = ?", PROBLEM_ID);
+        try {
+            TestCaseCache.ProblemTests after = testCaseCache.get(PROBLEM_ID);
+
+            assertThat(after.version()).isEqualTo(before.version() + 1);
+            assertThat(new String(after.tests().get(0).expectedOutput(), StandardCharsets.UTF_8)).isEqualTo("changed");
+            assertThat(verdictCache.get("other-node-test")).isNull();
+        } finally {
+            jdbcTemplate.update("UPDATE test_cases SET expected_output = ? WHERE id = ?", original, first.id());
+            jdbcTemplate.update("UPDATE problems SET tests_version = tests_version + 1 WHERE id = ?", PROBLEM_ID);
+        }
+    }
+
+    @Test
+    void savingATestCaseBumpsTheVersion() {
+        long before = testCaseCache.get(PROBLEM_ID).version();
+        TestCase testCase = testCaseRepository.findByProblemIdOrderByIdAsc(PROBLEM_ID).get(0);
+        testCase.setIsHidden(!testCase.getIsHidden());
+        testCaseRepository.save(testCase);
+        testCase.setIsHidden(!testCase.getIsHidden());
+        testCaseRepository.save(testCase);
+
+        assertThat(problemRepository.findTestsVersion(PROBLEM_ID)).isEqualTo(before + 2);
+        assertThat(testCaseCache.get(PROBLEM_ID).version()).isEqualTo(before + 2);
+    }
+
+    private static JudgeService.JudgeResult verdict() {
+        JudgeService.JudgeResult result = new JudgeService.JudgeResult();
+        result.setVerdict("ACCEPTED");
+        return result;
+    }
+}